@@ -4,9 +4,13 @@ const API_BASE_URL = 'http://localhost:8080/api';
 // Global state
 let currentUser = null;
 let currentToken = null;
+let currentRefreshToken = null;
+let refreshInFlight = null;
 let currentPage = 0;
 let totalPages = 0;
 let editingBookId = null;
+let currentBooks = [];
+let bookEventsController = null;
 
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
@@ -16,9 +20,11 @@ document.addEventListener('DOMContentLoaded', function() {
     
     if (savedToken && savedUser) {
         currentToken = savedToken;
+        currentRefreshToken = localStorage.getItem('bookstore_refresh_token');
         currentUser = JSON.parse(savedUser);
         showMainApp();
         loadBooks();
+        connectBookEvents();
     }
 });
 
@@ -56,16 +62,12 @@ async function login(event) {
         
         if (response.ok) {
             const data = await response.json();
-            currentToken = data.token;
-            currentUser = data.user;
-            
-            // Save to localStorage
-            localStorage.setItem('bookstore_token', currentToken);
-            localStorage.setItem('bookstore_user', JSON.stringify(currentUser));
+            saveSession(data);
             
             showToast('Login successful!', 'success');
             showMainApp();
             loadBooks();
+            connectBookEvents();
         } else {
             const error = await response.json();
             showToast(error.message || 'Login failed', 'error');
@@ -98,16 +100,12 @@ async function register(event) {
         
         if (response.ok) {
             const data = await response.json();
-            currentToken = data.token;
-            currentUser = data.user;
-            
-            // Save to localStorage
-            localStorage.setItem('bookstore_token', currentToken);
-            localStorage.setItem('bookstore_user', JSON.stringify(currentUser));
+            saveSession(data);
             
             showToast('Registration successful!', 'success');
             showMainApp();
             loadBooks();
+            connectBookEvents();
         } else {
             const error = await response.json();
             showToast(error.message || 'Registration failed', 'error');
@@ -120,10 +118,86 @@ async function register(event) {
     }
 }
 
+// Store the token pair and user returned by login, register and refresh
+function saveSession(data) {
+    currentToken = data.token;
+    currentRefreshToken = data.refreshToken;
+    currentUser = data.user;
+    
+    localStorage.setItem('bookstore_token', currentToken);
+    localStorage.setItem('bookstore_refresh_token', currentRefreshToken);
+    localStorage.setItem('bookstore_user', JSON.stringify(currentUser));
+}
+
+// Trade the refresh token for a new pair; resolves to false when the session is over.
+// Refresh tokens are single use, so concurrent callers share one in-flight refresh.
+function refreshSession() {
+    if (!refreshInFlight) {
+        refreshInFlight = sendRefresh().finally(() => {
+            refreshInFlight = null;
+        });
+    }
+    return refreshInFlight;
+}
+
+async function sendRefresh() {
+    if (!currentRefreshToken) return false;
+    
+    try {
+        const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ refreshToken: currentRefreshToken })
+        });
+        if (!response.ok) return false;
+        saveSession(await response.json());
+        return true;
+    } catch (error) {
+        console.error('Refresh error:', error);
+        return false;
+    }
+}
+
+// Access tokens are short-lived: on 401 (missing, expired or revoked token) refresh once and retry.
+// 403 means the token is valid but lacks the role, which a refresh would not change.
+async function authorizedFetch(url, options = {}) {
+    const send = (token) => fetch(url, {
+        ...options,
+        headers: { ...options.headers, 'Authorization': `Bearer ${token}` }
+    });
+    
+    const sentToken = currentToken;
+    const response = await send(sentToken);
+    if (response.status !== 401) {
+        return response;
+    }
+    // another call may already have refreshed while this one was in flight
+    if (currentToken !== sentToken) {
+        return send(currentToken);
+    }
+    return await refreshSession() ? send(currentToken) : response;
+}
+
 function logout() {
+    disconnectBookEvents();
+    if (currentToken) {
+        // best effort: revoke the pair server-side, the local session is cleared regardless
+        fetch(`${API_BASE_URL}/auth/logout`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Authorization': `Bearer ${currentToken}`
+            },
+            body: JSON.stringify({ refreshToken: currentRefreshToken })
+        }).catch(error => console.error('Logout error:', error));
+    }
     currentToken = null;
+    currentRefreshToken = null;
     currentUser = null;
     localStorage.removeItem('bookstore_token');
+    localStorage.removeItem('bookstore_refresh_token');
     localStorage.removeItem('bookstore_user');
     
     document.getElementById('authSection').style.display = 'block';
@@ -167,13 +241,8 @@ async function loadBooks() {
     showLoading(true);
     
     try {
-        const response = await fetch(
-            `${API_BASE_URL}/books?page=${currentPage}&size=${pageSize}&sortBy=${sortBy}&sortDir=${sortDir}`,
-            {
-                headers: {
-                    'Authorization': `Bearer ${currentToken}`
-                }
-            }
+        const response = await authorizedFetch(
+            `${API_BASE_URL}/books?page=${currentPage}&size=${pageSize}&sortBy=${sortBy}&sortDir=${sortDir}`
         );
         
         if (response.ok) {
@@ -192,6 +261,7 @@ async function loadBooks() {
 }
 
 function displayBooks(books) {
+    currentBooks = books.slice();
     const tbody = document.getElementById('booksTableBody');
     tbody.innerHTML = '';
     
@@ -206,31 +276,34 @@ function displayBooks(books) {
         return;
     }
     
-    books.forEach(book => {
-        const row = document.createElement('tr');
-        row.innerHTML = `
-            <td>${book.id}</td>
-            <td><strong>${escapeHtml(book.title)}</strong></td>
-            <td>${escapeHtml(book.author)}</td>
-            <td>${formatDate(book.publishedDate)}</td>
-            <td>${escapeHtml(book.genre || '-')}</td>
-            <td>$${book.price.toFixed(2)}</td>
-            <td><code>${book.isbn}</code></td>
-            ${currentUser.role === 'ADMIN' ? `
-                <td class="actions-column">
-                    <div class="action-buttons">
-                        <button class="btn btn-warning" onclick="editBook(${book.id})" title="Edit">
-                            <i class="fas fa-edit"></i>
-                        </button>
-                        <button class="btn btn-danger" onclick="deleteBook(${book.id})" title="Delete">
-                            <i class="fas fa-trash"></i>
-                        </button>
-                    </div>
-                </td>
-            ` : ''}
-        `;
-        tbody.appendChild(row);
-    });
+    books.forEach(book => tbody.appendChild(createBookRow(book)));
+}
+
+function createBookRow(book) {
+    const row = document.createElement('tr');
+    row.dataset.bookId = book.id;
+    row.innerHTML = `
+        <td>${book.id}</td>
+        <td><strong>${escapeHtml(book.title)}</strong></td>
+        <td>${escapeHtml(book.author)}</td>
+        <td>${formatDate(book.publishedDate)}</td>
+        <td>${escapeHtml(book.genre || '-')}</td>
+        <td>$${book.price.toFixed(2)}</td>
+        <td><code>${book.isbn}</code></td>
+        ${currentUser.role === 'ADMIN' ? `
+            <td class="actions-column">
+                <div class="action-buttons">
+                    <button class="btn btn-warning" onclick="editBook(${book.id})" title="Edit">
+                        <i class="fas fa-edit"></i>
+                    </button>
+                    <button class="btn btn-danger" onclick="deleteBook(${book.id})" title="Delete">
+                        <i class="fas fa-trash"></i>
+                    </button>
+                </div>
+            </td>
+        ` : ''}
+    `;
+    return row;
 }
 
 function updatePagination(data) {
@@ -313,6 +386,118 @@ function changePage(page) {
 }
 
 
+// Live Updates
+// EventSource cannot send the Authorization header, so the event stream is read with fetch
+async function connectBookEvents() {
+    disconnectBookEvents();
+    if (!currentToken) return;
+    
+    const controller = new AbortController();
+    bookEventsController = controller;
+    
+    try {
+        const response = await authorizedFetch(`${API_BASE_URL}/books/events`, {
+            headers: {
+                'Accept': 'text/event-stream'
+            },
+            signal: controller.signal
+        });
+        if (!response.ok || !response.body) {
+            throw new Error(`Event stream rejected with status ${response.status}`);
+        }
+        
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            
+            buffer += value;
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                const message = buffer.slice(0, boundary);
+                buffer = buffer.slice(boundary + 2);
+                const data = message.split('\n')
+                    .filter(line => line.startsWith('data:'))
+                    .map(line => line.slice(5))
+                    .join('\n');
+                if (data) {
+                    applyBookEvent(JSON.parse(data));
+                }
+            }
+        }
+    } catch (error) {
+        if (controller.signal.aborted) return;
+        console.warn('Book event stream interrupted:', error);
+    }
+    
+    // reconnect and resync anything missed while disconnected
+    setTimeout(() => {
+        if (bookEventsController === controller && currentToken) {
+            loadBooks();
+            connectBookEvents();
+        }
+    }, 3000);
+}
+
+function disconnectBookEvents() {
+    if (bookEventsController) {
+        bookEventsController.abort();
+        bookEventsController = null;
+    }
+}
+
+// Patch the current page in place for a created, updated or deleted book
+function applyBookEvent(event) {
+    const tbody = document.getElementById('booksTableBody');
+    const existingIndex = currentBooks.findIndex(book => book.id === event.bookId);
+    if (existingIndex >= 0) {
+        currentBooks.splice(existingIndex, 1);
+        const existingRow = tbody.querySelector(`tr[data-book-id="${event.bookId}"]`);
+        if (existingRow) existingRow.remove();
+    }
+    
+    if (event.type !== 'DELETED') {
+        const position = pagePosition(event.book);
+        if (position !== null) {
+            if (currentBooks.length === 0) tbody.innerHTML = '';
+            currentBooks.splice(position, 0, event.book);
+            tbody.insertBefore(createBookRow(event.book), tbody.querySelectorAll('tr[data-book-id]')[position] || null);
+            
+            const pageSize = parseInt(document.getElementById('pageSize').value, 10);
+            if (currentBooks.length > pageSize) {
+                const overflow = currentBooks.pop();
+                tbody.querySelector(`tr[data-book-id="${overflow.id}"]`).remove();
+            }
+        }
+    }
+    
+    if (currentBooks.length === 0) {
+        displayBooks([]);
+    }
+}
+
+// Index of the book within the current page, or null when it sorts onto another page
+function pagePosition(book) {
+    const sortBy = document.getElementById('sortBy').value;
+    const direction = document.getElementById('sortDir').value === 'desc' ? -1 : 1;
+    const pageSize = parseInt(document.getElementById('pageSize').value, 10);
+    const compare = (a, b) => {
+        const left = a[sortBy];
+        const right = b[sortBy];
+        if (left === right) return 0;
+        if (left === null || left === undefined) return -direction;
+        if (right === null || right === undefined) return direction;
+        return (left < right ? -1 : 1) * direction;
+    };
+    
+    let position = currentBooks.findIndex(other => compare(book, other) < 0);
+    if (position < 0) position = currentBooks.length;
+    
+    if (position === 0 && currentPage > 0) return null;
+    if (position === currentBooks.length && currentBooks.length >= pageSize) return null;
+    return position;
+}
 
 // Modal Functions
 function showAddBookModal() {
@@ -376,20 +561,21 @@ async function saveBook(event) {
         
         const method = editingBookId ? 'PUT' : 'POST';
         
-        const response = await fetch(url, {
+        const response = await authorizedFetch(url, {
             method: method,
             headers: {
-                'Content-Type': 'application/json',
-                'Authorization': `Bearer ${currentToken}`
+                'Content-Type': 'application/json'
             },
             body: JSON.stringify(bookData)
         });
         
         if (response.ok) {
             const action = editingBookId ? 'updated' : 'created';
+            const savedBook = await response.json();
             showToast(`Book ${action} successfully!`, 'success');
             closeBookModal();
-            loadBooks();
+            // the event stream delivers the same change; applying it twice is harmless
+            applyBookEvent({ type: editingBookId ? 'UPDATED' : 'CREATED', bookId: savedBook.id, book: savedBook });
         } else {
             const error = await response.json();
             if (error.fieldErrors) {
@@ -416,16 +602,13 @@ async function deleteBook(bookId) {
     showLoading(true);
     
     try {
-        const response = await fetch(`${API_BASE_URL}/books/${bookId}`, {
-            method: 'DELETE',
-            headers: {
-                'Authorization': `Bearer ${currentToken}`
-            }
+        const response = await authorizedFetch(`${API_BASE_URL}/books/${bookId}`, {
+            method: 'DELETE'
         });
         
         if (response.ok) {
             showToast('Book deleted successfully!', 'success');
-            loadBooks();
+            applyBookEvent({ type: 'DELETED', bookId: bookId, book: null });
         } else {
             const error = await response.json();
             showToast(error.message || 'Failed to delete book', 'error');
@@ -0,0 +1,82 @@
+package com.closedigit.bookstore.catalog;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.closedigit.bookstore.dto.BookDto;
+
+/**
+ * Primitive lookup tables over a {@link CatalogSnapshot}: book id to row and ISBN to row.
+ * ISBNs made of exactly 10 or 13 digits (everything the validator accepts) are packed into a long;
+ * anything else falls back to a small string set so answers stay exact.
+ */
+public final class CatalogIndex {
+
+    private static final long ISBN_13_MARKER = 1L << 62;
+
+    private final CatalogSnapshot snapshot;
+    private final LongIntHashMap rowsById;
+    private final LongIntHashMap rowsByIsbn;
+    private final Set<String> unpackedIsbns = new HashSet<>();
+
+    private CatalogIndex(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.rowsById = new LongIntHashMap(snapshot.size());
+        this.rowsByIsbn = new LongIntHashMap(snapshot.size());
+    }
+
+    public static CatalogIndex build(CatalogSnapshot snapshot) {
+        CatalogIndex index = new CatalogIndex(snapshot);
+        for (int row = 0; row < snapshot.size(); row++) {
+            index.rowsById.put(snapshot.id(row), row);
+            String isbn = snapshot.isbn(row);
+            long packed = packIsbn(isbn);
+            if (packed < 0) {
+                index.unpackedIsbns.add(isbn);
+            } else {
+                index.rowsByIsbn.put(packed, row);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the book, or null when no book has the id
+     */
+    public BookDto findById(long id) {
+        int row = rowsById.get(id);
+        return row == LongIntHashMap.MISSING ? null : snapshot.row(row);
+    }
+
+    public boolean containsIsbn(String isbn) {
+        long packed = packIsbn(isbn);
+        return packed < 0 ? unpackedIsbns.contains(isbn) : rowsByIsbn.get(packed) != LongIntHashMap.MISSING;
+    }
+
+    /**
+     * Bytes held by the lookup tables
+     */
+    public long footprintBytes() {
+        return rowsById.footprintBytes() + rowsByIsbn.footprintBytes();
+    }
+
+    /**
+     * Pack a 10 or 13 digit ISBN into a long, keeping the two lengths apart
+     *
+     * @return the packed value, or -1 when the string is not exactly 10 or 13 digits
+     */
+    static long packIsbn(String isbn) {
+        if (isbn == null || (isbn.length() != 10 && isbn.length() != 13)) {
+            return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            packed = packed * 10 + (c - '0');
+        }
+        return isbn.length() == 13 ? packed | ISBN_13_MARKER : packed;
+    }
+}
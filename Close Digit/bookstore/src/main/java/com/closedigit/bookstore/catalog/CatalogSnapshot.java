@@ -0,0 +1,247 @@
+package com.closedigit.bookstore.catalog;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.closedigit.bookstore.dto.BookDto;
+
+/**
+ * Immutable, column-oriented copy of the catalog held in a memory-mapped file.
+ *
+ * Layout (all offsets absolute within the mapping):
+ * <ul>
+ *   <li>fixed-width columns: id (long), price in cents (long), published date as epoch day (int)</li>
+ *   <li>for each string column (title, author, genre, isbn): an offset and a length (int) per row
+ *       pointing into a shared UTF-8 arena; a length of -1 marks null</li>
+ *   <li>one ascending permutation (int row numbers) per sortable field</li>
+ * </ul>
+ * Only the rows of the requested page are decoded onto the heap.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Sortable fields, matching the sort fields accepted by the book list endpoint
+     */
+    public static final List<String> SORT_FIELDS =
+            List.of("id", "title", "author", "publishedDate", "genre", "price", "isbn");
+
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int GENRE = 2;
+    private static final int ISBN = 3;
+    private static final int STRING_COLUMNS = 4;
+
+    /** Snapshot files that were still mapped when their build tried to delete them */
+    private static final Queue<Path> UNDELETED_FILES = new ConcurrentLinkedQueue<>();
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int idColumn;
+    private final int priceColumn;
+    private final int dateColumn;
+    private final int[] stringColumns = new int[STRING_COLUMNS];
+    private final int[] permutations = new int[SORT_FIELDS.size()];
+
+    private CatalogSnapshot(ByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+        int position = 0;
+        this.idColumn = position;
+        position += Long.BYTES * size;
+        this.priceColumn = position;
+        position += Long.BYTES * size;
+        this.dateColumn = position;
+        position += Integer.BYTES * size;
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            stringColumns[column] = position;
+            position += 2 * Integer.BYTES * size;
+        }
+        for (int field = 0; field < permutations.length; field++) {
+            permutations[field] = position;
+            position += Integer.BYTES * size;
+        }
+    }
+
+    /**
+     * Write the books into a new file under the directory and map it.
+     * The file is unlinked once mapped, so the space is reclaimed when the mapping is collected. Where a
+     * mapped file cannot be deleted (Windows), later builds retry once its mapping has been released,
+     * and it is deleted at exit otherwise.
+     */
+    public static CatalogSnapshot build(List<BookDto> books, Path directory) throws IOException {
+        int size = books.size();
+        byte[][][] strings = new byte[STRING_COLUMNS][size][];
+        long arenaBytes = 0;
+        for (int row = 0; row < size; row++) {
+            BookDto book = books.get(row);
+            String[] values = {book.title(), book.author(), book.genre(), book.isbn()};
+            for (int column = 0; column < STRING_COLUMNS; column++) {
+                if (values[column] != null) {
+                    strings[column][row] = values[column].getBytes(StandardCharsets.UTF_8);
+                    arenaBytes += strings[column][row].length;
+                }
+            }
+        }
+
+        long fixedBytes = (long) size * (Long.BYTES * 2 + Integer.BYTES
+                + 2L * Integer.BYTES * STRING_COLUMNS + (long) Integer.BYTES * SORT_FIELDS.size());
+        long totalBytes = fixedBytes + arenaBytes;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Catalog of " + size + " books is too large for a single snapshot");
+        }
+
+        Files.createDirectories(directory);
+        deleteReleasedFiles();
+        Path file = Files.createTempFile(directory, "catalog-", ".snapshot");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(1, totalBytes));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // still mapped; retried by later builds once the mapping has been collected
+            UNDELETED_FILES.add(file);
+            file.toFile().deleteOnExit();
+        }
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(buffer, size);
+        snapshot.write(books, strings, (int) fixedBytes);
+        return snapshot;
+    }
+
+    /**
+     * Retry the files earlier builds could not delete; those still mapped refuse again and stay queued
+     */
+    private static void deleteReleasedFiles() {
+        for (Path leftover : UNDELETED_FILES) {
+            try {
+                Files.deleteIfExists(leftover);
+                UNDELETED_FILES.remove(leftover);
+            } catch (IOException e) {
+                // mapped by a live snapshot
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decode {@code limit} rows starting at {@code offset} in the order of the given field
+     */
+    public List<BookDto> read(String sortField, boolean ascending, long offset, int limit) {
+        int permutation = permutations[SORT_FIELDS.indexOf(sortField)];
+        int end = (int) Math.min(size, offset + limit);
+        List<BookDto> page = new ArrayList<>(Math.max(0, end - (int) Math.min(offset, size)));
+        for (long i = offset; i < end; i++) {
+            int rank = ascending ? (int) i : size - 1 - (int) i;
+            page.add(row(buffer.getInt(permutation + Integer.BYTES * rank)));
+        }
+        return page;
+    }
+
+    /**
+     * Decode a single row by its position in the snapshot
+     */
+    public BookDto row(int row) {
+        return new BookDto(
+                id(row),
+                string(TITLE, row),
+                string(AUTHOR, row),
+                LocalDate.ofEpochDay(buffer.getInt(dateColumn + Integer.BYTES * row)),
+                string(GENRE, row),
+                BigDecimal.valueOf(buffer.getLong(priceColumn + Long.BYTES * row), 2),
+                string(ISBN, row));
+    }
+
+    public long id(int row) {
+        return buffer.getLong(idColumn + Long.BYTES * row);
+    }
+
+    public String isbn(int row) {
+        return string(ISBN, row);
+    }
+
+    private String string(int column, int row) {
+        int entry = stringColumns[column] + 2 * Integer.BYTES * row;
+        int length = buffer.getInt(entry + Integer.BYTES);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(buffer.getInt(entry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void write(List<BookDto> books, byte[][][] strings, int arenaStart) {
+        int arena = arenaStart;
+        for (int row = 0; row < size; row++) {
+            BookDto book = books.get(row);
+            buffer.putLong(idColumn + Long.BYTES * row, book.id());
+            buffer.putLong(priceColumn + Long.BYTES * row, book.price().setScale(2).unscaledValue().longValueExact());
+            buffer.putInt(dateColumn + Integer.BYTES * row, (int) book.publishedDate().toEpochDay());
+            for (int column = 0; column < STRING_COLUMNS; column++) {
+                int entry = stringColumns[column] + 2 * Integer.BYTES * row;
+                byte[] bytes = strings[column][row];
+                buffer.putInt(entry, arena);
+                buffer.putInt(entry + Integer.BYTES, bytes == null ? -1 : bytes.length);
+                if (bytes != null) {
+                    buffer.put(arena, bytes);
+                    arena += bytes.length;
+                }
+            }
+        }
+
+        for (int field = 0; field < SORT_FIELDS.size(); field++) {
+            int[] order = IntStream.range(0, size).boxed()
+                    .sorted(comparator(SORT_FIELDS.get(field), books))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int rank = 0; rank < size; rank++) {
+                buffer.putInt(permutations[field] + Integer.BYTES * rank, order[rank]);
+            }
+        }
+    }
+
+    /**
+     * Ascending order for a field with nulls first (as the database orders them); ties are broken by id
+     */
+    private static Comparator<Integer> comparator(String field, List<BookDto> books) {
+        Comparator<Integer> byField = switch (field) {
+            case "id" -> Comparator.comparing(row -> books.get(row).id());
+            case "title" -> nullsFirst(books, BookDto::title);
+            case "author" -> nullsFirst(books, BookDto::author);
+            case "publishedDate" -> nullsFirst(books, BookDto::publishedDate);
+            case "genre" -> nullsFirst(books, BookDto::genre);
+            case "price" -> nullsFirst(books, BookDto::price);
+            case "isbn" -> nullsFirst(books, BookDto::isbn);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + field);
+        };
+        return byField.thenComparing(row -> books.get(row).id());
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Integer> nullsFirst(List<BookDto> books,
+            Function<BookDto, T> getter) {
+        return Comparator.comparing(row -> getter.apply(books.get(row)), Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.closedigit.bookstore.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.event.CatalogSnapshotInstalledEvent;
+import com.closedigit.bookstore.repository.BookRepository;
+
+/**
+ * Owns the off-heap {@link CatalogSnapshot} for read-mostly deployments.
+ * The snapshot is built at startup and rebuilt in the background after committed book changes;
+ * changes arriving during a rebuild are coalesced into one more rebuild. Pages are served from it
+ * until it is replaced, so list reads may lag a write by one rebuild. Id and ISBN lookups through
+ * {@link CatalogIndex} are only offered while no committed change is outstanding.
+ *
+ * Enabled with {@code catalog.snapshot.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotManager implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotManager.class);
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalog-snapshot-"));
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Built built;
+
+    public CatalogSnapshotManager(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${catalog.snapshot.directory:${java.io.tmpdir}}") String directory) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Serve a page from the snapshot, or empty when there is none yet or the sort is not presorted
+     */
+    public Optional<Page<BookDto>> findPage(Pageable pageable) {
+        Built current = built;
+        if (current == null || pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+
+        Sort.Order order = singleOrder(pageable.getSort());
+        if (order == null) {
+            return Optional.empty();
+        }
+
+        List<BookDto> content = current.snapshot().read(order.getProperty(), order.isAscending(),
+                pageable.getOffset(), pageable.getPageSize());
+        return Optional.of(new PageImpl<>(content, pageable, current.snapshot().size()));
+    }
+
+    /**
+     * Id and ISBN lookups, only while the snapshot reflects every committed change;
+     * empty means the caller must ask the database
+     */
+    public Optional<CatalogIndex> currentIndex() {
+        Built current = built;
+        if (current == null || current.generation() != generation.get()) {
+            return Optional.empty();
+        }
+        return Optional.of(current.index());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        scheduleRebuild();
+    }
+
+    /**
+     * Invalidate lookups as soon as a change is made, before its transaction completes
+     */
+    @EventListener
+    public void onBookChanging(BookChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Bumped again on completion so a rebuild that started while the transaction was open is not
+     * taken as current
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        rebuildPending.set(false);
+        long buildGeneration = generation.get();
+        long start = System.nanoTime();
+        try {
+            List<BookDto> books = transactionTemplate.execute(status -> {
+                List<BookDto> rows = new ArrayList<>();
+                try (var stream = bookRepository.streamAllProjectedBy(Sort.by("id"))) {
+                    stream.forEach(rows::add);
+                }
+                return rows;
+            });
+            CatalogSnapshot snapshot = CatalogSnapshot.build(books, directory);
+            CatalogIndex index = CatalogIndex.build(snapshot);
+            built = new Built(snapshot, index, buildGeneration);
+            // pages rendered from the previous snapshot may have been cached after the change committed
+            eventPublisher.publishEvent(new CatalogSnapshotInstalledEvent(books.size()));
+            logger.info("Catalog snapshot rebuilt with {} books in {} ms ({} KB of lookup tables)", books.size(),
+                    (System.nanoTime() - start) / 1_000_000, index.footprintBytes() / 1024);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to rebuild catalog snapshot, keeping the previous one", e);
+        }
+    }
+
+    private static Sort.Order singleOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || orders.get(0).isIgnoreCase()
+                || !CatalogSnapshot.SORT_FIELDS.contains(orders.get(0).getProperty())) {
+            return null;
+        }
+        return orders.get(0);
+    }
+
+    private record Built(CatalogSnapshot snapshot, CatalogIndex index, long generation) {}
+}
@@ -0,0 +1,87 @@
+package com.closedigit.bookstore.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from primitive long keys to non-negative int values.
+ * Keys and values live in two flat arrays with linear probing, so an entry costs 12 bytes per slot
+ * (about 16 bytes at the maximum load factor) with no boxing and no per-entry objects.
+ * Not thread-safe while being filled; safe for concurrent reads once published.
+ */
+public final class LongIntHashMap {
+
+    /**
+     * Returned by {@link #get} when the key is absent
+     */
+    public static final int MISSING = -1;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit((int) Math.max(2, Math.ceil(expectedSize / MAX_LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * Insert or replace a mapping
+     *
+     * @param value a non-negative value
+     */
+    public void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative");
+        }
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+            throw new IllegalStateException("Table is full; size it for the expected number of entries");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * @return the value for the key, or {@link #MISSING}
+     */
+    public int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by the backing arrays
+     */
+    public long footprintBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -14,13 +14,15 @@ import com.closedigit.bookstore.service.UserService;
 public class AuthenticationConfig {
     
     /**
-     * Authentication provider bean
+     * Authentication provider bean. After a successful login, hashes the password policy reports as
+     * outdated are rehashed and saved through {@link UserService#updatePassword}.
      */
     @Bean
     public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 }
\ No newline at end of file
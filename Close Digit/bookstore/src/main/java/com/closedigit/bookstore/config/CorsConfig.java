@@ -2,18 +2,32 @@ package com.closedigit.bookstore.config;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.closedigit.bookstore.security.CorsPreflightFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * CORS configuration
+ * Preflight requests are answered by {@link CorsPreflightFilter} before the security chain
  */
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Browsers cap this (Chromium at 2 hours, Firefox at 24 hours); the longest cap is used
+     */
+    @Value("${cors.preflight-max-age-seconds:86400}")
+    private long preflightMaxAgeSeconds;
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -23,10 +37,23 @@ public class CorsConfig {
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
         configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setMaxAge(preflightMaxAgeSeconds);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
 
         return source;
     }
+
+    /**
+     * Registered just ahead of Spring Security's filter chain so preflights skip authentication
+     */
+    @Bean
+    public FilterRegistrationBean<CorsPreflightFilter> corsPreflightFilter(
+            CorsConfigurationSource corsConfigurationSource, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<CorsPreflightFilter> registration = new FilterRegistrationBean<>(
+                new CorsPreflightFilter(corsConfigurationSource, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
 }
\ No newline at end of file
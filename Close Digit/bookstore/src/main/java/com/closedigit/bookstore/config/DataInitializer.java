@@ -14,6 +14,7 @@ import com.closedigit.bookstore.entity.Role;
 import com.closedigit.bookstore.entity.User;
 import com.closedigit.bookstore.repository.BookRepository;
 import com.closedigit.bookstore.repository.UserRepository;
+import com.closedigit.bookstore.security.PasswordHashingPolicy;
 
 /**
  * Sample data
@@ -25,13 +26,12 @@ public class DataInitializer implements CommandLineRunner {
 
         private final UserRepository userRepository;
         private final BookRepository bookRepository;
-        private final PasswordEncoder passwordEncoder;
+        /** Minimum-cost hashes; upgraded to the calibrated cost on each account's first login */
+        private final PasswordEncoder passwordEncoder = PasswordHashingPolicy.seedEncoder();
 
-        public DataInitializer(UserRepository userRepository, BookRepository bookRepository,
-                        PasswordEncoder passwordEncoder) {
+        public DataInitializer(UserRepository userRepository, BookRepository bookRepository) {
                 this.userRepository = userRepository;
                 this.bookRepository = bookRepository;
-                this.passwordEncoder = passwordEncoder;
         }
 
         @Override
@@ -0,0 +1,12 @@
+package com.closedigit.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration for periodic housekeeping jobs
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
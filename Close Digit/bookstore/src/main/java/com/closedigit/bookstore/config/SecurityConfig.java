@@ -1,8 +1,10 @@
 package com.closedigit.bookstore.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -10,13 +12,19 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.closedigit.bookstore.security.BoundedPasswordEncoder;
 import com.closedigit.bookstore.security.JwtAuthenticationFilter;
+import com.closedigit.bookstore.security.PasswordHashingPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.DispatcherType;
 
 /**
  * Security configuration for the application
@@ -27,9 +35,41 @@ import com.closedigit.bookstore.security.JwtAuthenticationFilter;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    @Value("${auth.password-hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${auth.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.password-hashing.max-wait-ms:2000}")
+    private long hashingMaxWaitMillis;
+
+    @Value("${auth.password-hashing.algorithm:bcrypt}")
+    private String hashingAlgorithm;
+
+    @Value("${auth.password-hashing.target-ms:100}")
+    private long hashingTargetMillis;
+
+    @Value("${auth.password-hashing.min-strength:10}")
+    private int hashingMinStrength;
+
+    @Value("${auth.password-hashing.max-strength:14}")
+    private int hashingMaxStrength;
+
+    @Value("${auth.password-hashing.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    /**
+     * Hashing cost is calibrated to this host at startup; the hashing itself runs on a dedicated bounded
+     * pool (defaults to one thread per core) instead of request threads
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        PasswordEncoder policy = PasswordHashingPolicy.create(hashingAlgorithm, hashingTargetMillis,
+                hashingMinStrength, hashingMaxStrength, argon2MemoryKib);
+        return new BoundedPasswordEncoder(policy, poolSize, hashingQueueCapacity, hashingMaxWaitMillis,
+                meterRegistry);
     }
 
     @Bean
@@ -49,11 +89,18 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                 .authorizeHttpRequests(authz -> authz
+                        // async re-dispatch (long-poll and streamed results) of a request authorized on entry
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        // probes stay public; metrics and any other endpoint expose internals
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         .requestMatchers(HttpMethod.GET, "/api/books/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/books/batch-get").hasAnyRole("USER", "ADMIN")
 
                         .requestMatchers(HttpMethod.POST, "/api/books/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/books/**").hasRole("ADMIN")
@@ -63,6 +110,11 @@ public class SecurityConfig {
 
                         .anyRequest().authenticated())
 
+                // no usable token (missing, invalid, expired or revoked) is 401, so clients know to refresh;
+                // a valid token without the required role stays 403
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
 
                 .headers(headers -> headers
@@ -0,0 +1,43 @@
+package com.closedigit.bookstore.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Threading configuration
+ * Reports whether Tomcat and the async task executor run on virtual threads
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final Environment environment;
+
+    public ThreadingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Spring Boot silently ignores spring.threads.virtual.enabled below JDK 21, so make the effective mode visible
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Request handling and async executors are running on virtual threads");
+        } else if (requested) {
+            logger.warn("Virtual threads requested but running on Java {}; falling back to platform threads",
+                    JavaVersion.getJavaVersion());
+        } else {
+            logger.info("Request handling is running on platform threads");
+        }
+    }
+}
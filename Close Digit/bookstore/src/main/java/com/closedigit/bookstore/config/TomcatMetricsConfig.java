@@ -0,0 +1,51 @@
+package com.closedigit.bookstore.config;
+
+import java.util.concurrent.Executor;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tomcat connector metrics
+ * Adds the request queue length, which the standard tomcat.* meters do not cover. Busy threads and
+ * open connections come from Micrometer's Tomcat binder once server.tomcat.mbeanregistry.enabled is set.
+ */
+@Configuration
+public class TomcatMetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TomcatMetricsConfig.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public TomcatMetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void bindConnectorMetrics(WebServerInitializedEvent event) {
+        if (!(event.getWebServer() instanceof TomcatWebServer webServer)) {
+            return;
+        }
+        Connector connector = webServer.getTomcat().getConnector();
+        Executor executor = connector.getProtocolHandler().getExecutor();
+        if (!(executor instanceof ThreadPoolExecutor threadPool)) {
+            // virtual thread executors have no queue
+            logger.debug("Tomcat executor {} has no request queue to report", executor);
+            return;
+        }
+
+        Gauge.builder("tomcat.threads.queued", threadPool, pool -> pool.getQueue().size())
+                .description("Requests accepted by the connector and waiting for a request thread")
+                .tag("port", String.valueOf(connector.getPort()))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.closedigit.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.closedigit.bookstore.security.CatalogAdmissionInterceptor;
+
+/**
+ * Web MVC configuration
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogAdmissionInterceptor catalogAdmissionInterceptor;
+
+    public WebConfig(CatalogAdmissionInterceptor catalogAdmissionInterceptor) {
+        this.catalogAdmissionInterceptor = catalogAdmissionInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // long-polls on the change feed and event streams hold no database resources while they wait
+        registry.addInterceptor(catalogAdmissionInterceptor)
+                .addPathPatterns("/api/books", "/api/books/**")
+                .excludePathPatterns("/api/books/changes", "/api/books/events");
+    }
+}
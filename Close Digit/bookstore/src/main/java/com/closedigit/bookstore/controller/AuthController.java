@@ -2,20 +2,22 @@ package com.closedigit.bookstore.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.closedigit.bookstore.dto.AuthRequest;
 import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.RefreshTokenRequest;
 import com.closedigit.bookstore.dto.RegisterRequest;
 import com.closedigit.bookstore.service.AuthService;
 
-
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -23,12 +25,13 @@ import jakarta.validation.Valid;
  */
 @RestController
 @RequestMapping("/api/auth")
-@CrossOrigin(origins = "*", maxAge = 3600)
 
 public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     public AuthController(AuthService authService) {
@@ -39,15 +42,36 @@ public class AuthController {
      * User login endpoint
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest,
+            HttpServletRequest request) {
         logger.info("Login attempt for user: {}", authRequest.username());
 
-        AuthResponse authResponse = authService.login(authRequest);
+        AuthResponse authResponse = authService.login(authRequest, request.getRemoteAddr());
 
         logger.info("Login successful for user: {}", authRequest.username());
         return ResponseEntity.ok(authResponse);
     }
 
+    /**
+     * Exchange a refresh token for a new access and refresh token pair
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return ResponseEntity.ok(authService.refresh(refreshRequest.refreshToken()));
+    }
+
+    /**
+     * Logout endpoint; the bearer token it is called with (and the refresh token in the body, if sent)
+     * stops working immediately
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest logoutRequest) {
+        authService.logout(authorization.substring(BEARER_PREFIX.length()),
+                logoutRequest == null ? null : logoutRequest.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * User signup endpoint
      */
@@ -0,0 +1,59 @@
+package com.closedigit.bookstore.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.closedigit.bookstore.dto.BookChangesDto;
+import com.closedigit.bookstore.service.BookChangeFeedService;
+
+/**
+ * REST Controller for the book change feed
+ * Lets downstream consumers sync incrementally instead of re-reading the catalog
+ */
+@RestController
+@RequestMapping("/api/books/changes")
+public class BookChangeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeController.class);
+
+    private final BookChangeFeedService bookChangeFeedService;
+    private final long maxWaitMillis;
+
+    public BookChangeController(BookChangeFeedService bookChangeFeedService,
+            @Value("${catalog.changes.max-wait-ms:30000}") long maxWaitMillis) {
+        this.bookChangeFeedService = bookChangeFeedService;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Changes after the given sequence number, oldest first.
+     * With {@code waitMs > 0} the request is held until a change commits or the wait elapses,
+     * in which case an empty batch with the same cursor is returned.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public CompletableFuture<BookChangesDto> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        logger.debug("Getting book changes - since: {}, limit: {}, waitMs: {}", since, limit, waitMs);
+
+        if (waitMs <= 0) {
+            return CompletableFuture.completedFuture(bookChangeFeedService.getChangesSince(since, limit));
+        }
+        return bookChangeFeedService.awaitChangesSince(since, limit)
+                .completeOnTimeout(new BookChangesDto(List.of(), since, false),
+                        Math.min(waitMs, maxWaitMillis), TimeUnit.MILLISECONDS);
+    }
+}
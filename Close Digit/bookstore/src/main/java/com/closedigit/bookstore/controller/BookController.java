@@ -1,27 +1,50 @@
 package com.closedigit.bookstore.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.closedigit.bookstore.dto.BookBatchDto;
+import com.closedigit.bookstore.dto.BookBatchRequest;
+import com.closedigit.bookstore.dto.BookColumnsPageDto;
 import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.dto.BookFacetsDto;
+import com.closedigit.bookstore.dto.BookFilter;
+import com.closedigit.bookstore.dto.BookPageDto;
+import com.closedigit.bookstore.dto.CatalogStatsDto;
+import com.closedigit.bookstore.service.BookPageCache;
 import com.closedigit.bookstore.service.BookService;
+import com.closedigit.bookstore.service.CatalogStatisticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import jakarta.validation.Valid;
 
@@ -31,50 +54,119 @@ import jakarta.validation.Valid;
  */
 @RestController
 @RequestMapping("/api/books")
-@CrossOrigin(origins = "*", maxAge = 3600)
 public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
     private final BookService bookService;
+    private final CatalogStatisticsService catalogStatisticsService;
+    private final BookPageCache bookPageCache;
+    private final ObjectMapper objectMapper;
+    private final int streamChunkSize;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogStatisticsService catalogStatisticsService,
+            BookPageCache bookPageCache, ObjectMapper objectMapper,
+            @Value("${catalog.stream.chunk-size:500}") int streamChunkSize) {
         this.bookService = bookService;
+        this.catalogStatisticsService = catalogStatisticsService;
+        this.bookPageCache = bookPageCache;
+        this.objectMapper = objectMapper;
+        this.streamChunkSize = streamChunkSize;
     }
 
     /**
-     * Get all books with pagination and sorting
+     * Get all books with pagination, sorting and optional filters.
+     * With {@code facets=true} the response also carries counts per genre and price range.
+     * The encoded body is cached per normalized query until the next book change.
+     * Clients sending {@code Accept: application/vnd.closedigit.books.columnar+json} get the
+     * same page with field names listed once instead of on every row.
      */
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<BookDto>> getAllBooks(
+    public ResponseEntity<byte[]> getAllBooks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) BigDecimal priceMin,
+            @RequestParam(required = false) BigDecimal priceMax,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
         logger.debug("Getting all books - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
 
-        String[] validSortFields = {"id", "title", "author", "publishedDate", "genre", "price", "isbn"};
-        boolean isValidSortField = false;
-        for (String field : validSortFields) {
-            if (field.equalsIgnoreCase(sortBy)) {
-                sortBy = field;
-                isValidSortField = true;
-                break;
-            }
-        }
-        
-        if (!isValidSortField) {
-            logger.warn("Invalid sort field requested: {}, defaulting to 'title'", sortBy);
-            sortBy = "title";
+        BookFilter filter = new BookFilter(genre, author, priceMin, priceMax, publishedFrom, publishedTo);
+        Pageable pageable = PageRequest.of(page, size, buildSort(sortBy, sortDir));
+        boolean columnar = acceptsColumnar(accept);
+        BookPageCache.PageKey cacheKey = new BookPageCache.PageKey(page, size, pageable.getSort(), filter, facets,
+                columnar);
+
+        byte[] body = bookPageCache.get(cacheKey, () -> {
+            Page<BookDto> books = filter.isEmpty()
+                    ? bookService.getAllBooks(pageable)
+                    : bookService.searchBooks(filter, pageable);
+            BookFacetsDto bookFacets = facets ? bookService.getFacets(filter) : null;
+            BookPageDto bookPage = BookPageDto.of(books, bookFacets);
+            return toJson(columnar ? BookColumnsPageDto.of(bookPage) : bookPage);
+        });
+
+        return ResponseEntity.ok()
+                .contentType(columnar ? BookColumnsPageDto.MEDIA_TYPE : MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    /**
+     * Stream the whole catalog as newline-delimited JSON (Admin only).
+     * Books are read in keyset-paged chunks and each chunk is written and flushed before the next one
+     * is read, so memory stays flat and no connection is held while a slow client reads.
+     * Concurrent streams are capped by the catalog admission interceptor.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        logger.debug("Streaming all books - sortBy: {}, sortDir: {}", sortBy, sortDir);
+
+        Sort sort = buildSort(sortBy, sortDir);
+        if (sort.getOrderFor("genre") != null) {
+            throw new IllegalArgumentException("Books cannot be streamed by genre, which may be empty");
         }
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(BookDto.class);
+            bookService.streamAllBooks(sort, streamChunkSize, books -> {
+                try {
+                    for (BookDto book : books) {
+                        outputStream.write(writer.writeValueAsBytes(book));
+                        outputStream.write('\n');
+                    }
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<BookDto> books = bookService.getAllBooks(pageable);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
-        return ResponseEntity.ok(books);
+    /**
+     * Count, average price and publish date range per genre and per author
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<CatalogStatsDto> getCatalogStatistics() {
+        logger.debug("Getting catalog statistics");
+
+        return ResponseEntity.ok(catalogStatisticsService.getStatistics());
     }
 
     /**
@@ -89,6 +181,18 @@ public class BookController {
         return ResponseEntity.ok(book);
     }
 
+    /**
+     * Get several books by ID in one round trip.
+     * Books come back in request order; ids that match no book are listed in {@code missingIds}.
+     */
+    @PostMapping("/batch-get")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<BookBatchDto> getBooksByIds(@Valid @RequestBody BookBatchRequest request) {
+        logger.debug("Getting {} books by ID", request.ids().size());
+
+        return ResponseEntity.ok(bookService.getBooksByIds(request.ids()));
+    }
+
     /**
      * Create a new book (Admin only)
      */
@@ -130,4 +234,47 @@ public class BookController {
         logger.info("Book deleted successfully with ID: {}", id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * The columnar layout is opt-in: only an explicit, non-wildcard Accept entry selects it
+     */
+    private static boolean acceptsColumnar(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.getQualityValue() > 0
+                            && BookColumnsPageDto.MEDIA_TYPE.equalsTypeAndSubtype(type));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Sort buildSort(String sortBy, String sortDir) {
+        String[] validSortFields = {"id", "title", "author", "publishedDate", "genre", "price", "isbn"};
+        boolean isValidSortField = false;
+        for (String field : validSortFields) {
+            if (field.equalsIgnoreCase(sortBy)) {
+                sortBy = field;
+                isValidSortField = true;
+                break;
+            }
+        }
+
+        if (!isValidSortField) {
+            logger.warn("Invalid sort field requested: {}, defaulting to 'title'", sortBy);
+            sortBy = "title";
+        }
+
+        return sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+    }
 }
\ No newline at end of file
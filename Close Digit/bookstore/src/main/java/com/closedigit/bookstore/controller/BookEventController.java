@@ -0,0 +1,39 @@
+package com.closedigit.bookstore.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.closedigit.bookstore.service.BookEventBroadcaster;
+
+/**
+ * REST Controller for live book events
+ * Pushes create, update and delete notifications as Server-Sent Events
+ */
+@RestController
+@RequestMapping("/api/books/events")
+public class BookEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventController.class);
+
+    private final BookEventBroadcaster bookEventBroadcaster;
+
+    public BookEventController(BookEventBroadcaster bookEventBroadcaster) {
+        this.bookEventBroadcaster = bookEventBroadcaster;
+    }
+
+    /**
+     * Subscribe to book events; each event is named {@code book} and carries a compact JSON payload
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamBookEvents() {
+        logger.debug("Opening book event stream");
+        return bookEventBroadcaster.subscribe();
+    }
+}
@@ -0,0 +1,36 @@
+package com.closedigit.bookstore.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.closedigit.bookstore.security.JwtKeyRing;
+
+/**
+ * Publishes the token verification keys so other nodes and edge proxies can verify JWTs locally
+ */
+@RestController
+public class JwksController {
+
+    /**
+     * Well below the rotation interval: a key is published one full interval before it signs anything
+     */
+    private static final CacheControl JWKS_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(JWKS_CACHE)
+                .body(Map.of("keys", keyRing.publicJwks()));
+    }
+}
@@ -1,24 +1,37 @@
 package com.closedigit.bookstore.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.closedigit.bookstore.dto.UserDto;
+import com.closedigit.bookstore.dto.UserFilter;
+import com.closedigit.bookstore.dto.UserPageDto;
+import com.closedigit.bookstore.dto.UserSliceDto;
 import com.closedigit.bookstore.entity.Role;
 import com.closedigit.bookstore.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * REST Controller for User management operations
@@ -26,16 +39,21 @@ import com.closedigit.bookstore.service.UserService;
  */
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "*", maxAge = 3600)
 @PreAuthorize("hasRole('ADMIN')")
 public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SCROLL_LIMIT = 1000;
+    private static final String[] SORT_FIELDS = {"id", "username", "email", "role", "createdAt"};
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -51,14 +69,79 @@ public class UserController {
     }
 
     /**
-     * Get all users (Admin only)
+     * Get users with pagination, sorting and optional filters (Admin only)
      */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        logger.debug("Getting all users");
+    public ResponseEntity<UserPageDto> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) String usernamePrefix) {
+        logger.debug("Getting users - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
 
-        List<UserDto> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+        UserFilter filter = new UserFilter(role, createdFrom, createdTo, usernamePrefix);
+        return ResponseEntity.ok(getPage(filter, page, size, sortBy, sortDir));
+    }
+
+    /**
+     * Get users in id order after a keyset cursor (Admin only).
+     * Start without {@code afterId} and pass back {@code nextAfterId} until it is null; every slice
+     * costs the same however deep it is.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<UserSliceDto> scrollUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) String usernamePrefix) {
+        logger.debug("Scrolling users - afterId: {}, limit: {}", afterId, limit);
+
+        if (limit < 1 || limit > MAX_SCROLL_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SCROLL_LIMIT);
+        }
+        UserFilter filter = new UserFilter(role, createdFrom, createdTo, usernamePrefix);
+        return ResponseEntity.ok(userService.getUsersAfter(filter, afterId, limit));
+    }
+
+    /**
+     * Export matching users as newline-delimited JSON (Admin only).
+     * Rows are written as they are read from a JDBC cursor, so memory stays flat regardless of the
+     * number of users.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) String usernamePrefix) {
+        logger.info("Exporting users - sortBy: {}, sortDir: {}", sortBy, sortDir);
+
+        UserFilter filter = new UserFilter(role, createdFrom, createdTo, usernamePrefix);
+        Sort sort = buildSort(sortBy, sortDir);
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+            userService.streamUsers(filter, sort, user -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(user));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -73,14 +156,17 @@ public class UserController {
     }
 
     /**
-     * Get users by role (Admin only)
+     * Get users by role with pagination (Admin only)
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<UserDto>> getUsersByRole(@PathVariable Role role) {
+    public ResponseEntity<UserPageDto> getUsersByRole(@PathVariable Role role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
         logger.debug("Getting users with role: {}", role);
 
-        List<UserDto> users = userService.getUsersByRole(role);
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(getPage(UserFilter.byRole(role), page, size, sortBy, sortDir));
     }
 
     /**
@@ -96,6 +182,17 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Revoke every token issued to a user so far (Admin only)
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        logger.info("Revoking tokens of user ID: {}", id);
+
+        userService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Delete user (Admin only)
      */
@@ -130,4 +227,31 @@ public class UserController {
         long count = userService.getUserCountByRole(role);
         return ResponseEntity.ok(count);
     }
+
+    private UserPageDto getPage(UserFilter filter, int page, int size, String sortBy, String sortDir) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Pageable pageable = PageRequest.of(page, size, buildSort(sortBy, sortDir));
+        return UserPageDto.of(userService.searchUsers(filter, pageable));
+    }
+
+    /**
+     * Ties on non-unique fields are broken by id so pages do not overlap
+     */
+    private Sort buildSort(String sortBy, String sortDir) {
+        String sortField = "id";
+        for (String field : SORT_FIELDS) {
+            if (field.equalsIgnoreCase(sortBy)) {
+                sortField = field;
+                break;
+            }
+        }
+        if (!sortField.equalsIgnoreCase(sortBy)) {
+            logger.warn("Invalid sort field requested: {}, defaulting to 'id'", sortBy);
+        }
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortField).descending() : Sort.by(sortField).ascending();
+        return "id".equals(sortField) ? sort : sort.and(Sort.by("id"));
+    }
 }
\ No newline at end of file
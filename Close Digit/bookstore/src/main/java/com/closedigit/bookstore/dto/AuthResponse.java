@@ -2,14 +2,18 @@ package com.closedigit.bookstore.dto;
 
 /**
  * Authentication response DTO
+ * {@code token} is the short-lived access token, valid for {@code expiresIn} seconds;
+ * {@code refreshToken} obtains the next pair from /api/auth/refresh
  */
 public record AuthResponse(
         String token,
         String type,
-        UserDto user
+        UserDto user,
+        String refreshToken,
+        long expiresIn
 ) {
     
-    public static AuthResponse create(String token, UserDto user) {
-        return new AuthResponse(token, "Bearer", user);
+    public static AuthResponse create(String token, String refreshToken, long expiresIn, UserDto user) {
+        return new AuthResponse(token, "Bearer", user, refreshToken, expiresIn);
     }
 }
\ No newline at end of file
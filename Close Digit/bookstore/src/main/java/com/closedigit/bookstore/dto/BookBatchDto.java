@@ -0,0 +1,11 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch read: found books in request order and the ids that matched no book
+ */
+public record BookBatchDto(
+        List<BookDto> books,
+        List<Long> missingIds
+) {}
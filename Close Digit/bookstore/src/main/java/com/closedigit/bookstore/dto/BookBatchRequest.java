@@ -0,0 +1,16 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Ids to fetch in one batch read
+ */
+public record BookBatchRequest(
+        @NotEmpty(message = "At least one id is required")
+        @Size(max = 100, message = "At most 100 ids can be fetched at once")
+        List<@NotNull(message = "Ids must not be null") Long> ids
+) {}
@@ -0,0 +1,16 @@
+package com.closedigit.bookstore.dto;
+
+import java.time.LocalDateTime;
+
+import com.closedigit.bookstore.event.BookChangedEvent;
+
+/**
+ * One entry of the book change feed; {@code book} is null for deletes
+ */
+public record BookChangeDto(
+        long sequence,
+        BookChangedEvent.Type type,
+        Long bookId,
+        BookDto book,
+        LocalDateTime changedAt
+) {}
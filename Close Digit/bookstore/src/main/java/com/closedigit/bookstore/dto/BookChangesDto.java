@@ -0,0 +1,8 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Batch of book changes; pass {@code nextSince} as {@code since} to continue the feed
+ */
+public record BookChangesDto(List<BookChangeDto> changes, long nextSince, boolean hasMore) {}
@@ -0,0 +1,40 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Columnar page of books: field names are listed once in {@code columns} and each row is an array
+ * of values in that order. Served for {@value #MEDIA_TYPE_VALUE}.
+ */
+public record BookColumnsPageDto(
+        List<String> columns,
+        List<Object[]> rows,
+        int number,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean first,
+        boolean last,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        BookFacetsDto facets
+) {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.closedigit.books.columnar+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final List<String> COLUMNS =
+            List.of("id", "title", "author", "publishedDate", "genre", "price", "isbn");
+
+    public static BookColumnsPageDto of(BookPageDto page) {
+        List<Object[]> rows = page.content().stream()
+                .map(book -> new Object[] {book.id(), book.title(), book.author(), book.publishedDate(),
+                        book.genre(), book.price(), book.isbn()})
+                .toList();
+        return new BookColumnsPageDto(COLUMNS, rows, page.number(), page.size(), page.totalElements(),
+                page.totalPages(), page.first(), page.last(), page.facets());
+    }
+}
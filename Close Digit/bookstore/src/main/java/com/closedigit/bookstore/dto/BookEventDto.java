@@ -0,0 +1,13 @@
+package com.closedigit.bookstore.dto;
+
+import com.closedigit.bookstore.event.BookChangedEvent;
+
+/**
+ * Compact book change pushed to connected clients; {@code book} is null for deletes
+ */
+public record BookEventDto(BookChangedEvent.Type type, Long bookId, BookDto book) {
+
+    public static BookEventDto from(BookChangedEvent event) {
+        return new BookEventDto(event.type(), event.bookId(), event.after());
+    }
+}
@@ -0,0 +1,8 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Facet counts for a filtered book list, per genre and per price range
+ */
+public record BookFacetsDto(List<FacetCountDto> genres, List<FacetCountDto> priceRanges) {}
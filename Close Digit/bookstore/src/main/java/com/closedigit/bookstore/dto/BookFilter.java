@@ -0,0 +1,31 @@
+package com.closedigit.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Optional filters for the book list; null (or empty) fields do not restrict the result
+ */
+public record BookFilter(
+        List<String> genres,
+        String author,
+        BigDecimal priceMin,
+        BigDecimal priceMax,
+        LocalDate publishedFrom,
+        LocalDate publishedTo
+) {
+
+    public static BookFilter none() {
+        return new BookFilter(null, null, null, null, null, null);
+    }
+
+    public boolean isEmpty() {
+        return (genres == null || genres.isEmpty())
+                && (author == null || author.isBlank())
+                && priceMin == null
+                && priceMax == null
+                && publishedFrom == null
+                && publishedTo == null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Page of books with optional facet counts.
+ * Keeps the field names Spring Data's {@code PageImpl} serializes to, which this endpoint returned
+ * before facets were added; {@code facets} is only present when requested.
+ */
+public record BookPageDto(
+        List<BookDto> content,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        PageableDto pageable,
+        boolean last,
+        long totalElements,
+        int totalPages,
+        boolean first,
+        int size,
+        int number,
+        SortDto sort,
+        int numberOfElements,
+        boolean empty,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        BookFacetsDto facets
+) {
+
+    public static BookPageDto of(Page<BookDto> page, BookFacetsDto facets) {
+        return new BookPageDto(page.getContent(), PageableDto.of(page.getPageable()), page.isLast(),
+                page.getTotalElements(), page.getTotalPages(), page.isFirst(), page.getSize(), page.getNumber(),
+                SortDto.of(page.getSort()), page.getNumberOfElements(), page.isEmpty(), facets);
+    }
+
+    public record PageableDto(int pageNumber, int pageSize, SortDto sort, long offset, boolean paged,
+            boolean unpaged) {
+
+        /** {@code PageImpl} writes an unpaged request as a bare string; it is left out here instead */
+        static PageableDto of(Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return null;
+            }
+            return new PageableDto(pageable.getPageNumber(), pageable.getPageSize(), SortDto.of(pageable.getSort()),
+                    pageable.getOffset(), true, false);
+        }
+    }
+
+    public record SortDto(boolean empty, boolean sorted, boolean unsorted) {
+
+        static SortDto of(Sort sort) {
+            return new SortDto(sort.isEmpty(), sort.isSorted(), sort.isUnsorted());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.closedigit.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate row used to rebuild catalog statistics: one per group and published date
+ */
+public record BookStatsRow(String group, LocalDate publishedDate, Long count, BigDecimal priceSum) {}
@@ -0,0 +1,14 @@
+package com.closedigit.bookstore.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Catalog statistics grouped by genre and by author
+ */
+public record CatalogStatsDto(
+        long totalBooks,
+        List<GroupStatsDto> genres,
+        List<GroupStatsDto> authors,
+        LocalDateTime reconciledAt
+) {}
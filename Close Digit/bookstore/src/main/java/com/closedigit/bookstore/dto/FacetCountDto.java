@@ -0,0 +1,6 @@
+package com.closedigit.bookstore.dto;
+
+/**
+ * Number of matching books for a single facet value
+ */
+public record FacetCountDto(String value, long count) {}
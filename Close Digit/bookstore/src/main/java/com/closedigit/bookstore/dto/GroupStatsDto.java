@@ -0,0 +1,15 @@
+package com.closedigit.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Catalog statistics for a single genre or author
+ */
+public record GroupStatsDto(
+        String name,
+        long count,
+        BigDecimal averagePrice,
+        LocalDate earliestPublished,
+        LocalDate latestPublished
+) {}
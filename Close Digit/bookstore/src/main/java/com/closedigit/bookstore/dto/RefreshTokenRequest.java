@@ -0,0 +1,11 @@
+package com.closedigit.bookstore.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Refresh token presented to /api/auth/refresh, or optionally to /api/auth/logout
+ */
+public record RefreshTokenRequest(
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {}
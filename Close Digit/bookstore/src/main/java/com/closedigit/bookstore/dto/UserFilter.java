@@ -0,0 +1,25 @@
+package com.closedigit.bookstore.dto;
+
+import java.time.LocalDate;
+
+import com.closedigit.bookstore.entity.Role;
+
+/**
+ * Optional filters for the user list; null (or blank) fields do not restrict the result.
+ * The created-at range is inclusive of both days.
+ */
+public record UserFilter(
+        Role role,
+        LocalDate createdFrom,
+        LocalDate createdTo,
+        String usernamePrefix
+) {
+
+    public static UserFilter none() {
+        return new UserFilter(null, null, null, null);
+    }
+
+    public static UserFilter byRole(Role role) {
+        return new UserFilter(role, null, null, null);
+    }
+}
@@ -0,0 +1,24 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * Page of users
+ */
+public record UserPageDto(
+        List<UserDto> content,
+        int number,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean first,
+        boolean last
+) {
+
+    public static UserPageDto of(Page<UserDto> page) {
+        return new UserPageDto(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isFirst(), page.isLast());
+    }
+}
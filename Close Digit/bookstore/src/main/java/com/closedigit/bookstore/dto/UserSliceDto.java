@@ -0,0 +1,12 @@
+package com.closedigit.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Users in id order after a keyset cursor.
+ * Pass {@code nextAfterId} as {@code afterId} to fetch the following slice; it is null on the last one.
+ */
+public record UserSliceDto(
+        List<UserDto> content,
+        Long nextAfterId
+) {}
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
@@ -21,7 +22,12 @@ import jakarta.validation.constraints.Size;
  * Uses JPA annotations for database mapping and validation
  */
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_genre_price", columnList = "genre, price"),
+        @Index(name = "idx_books_author", columnList = "author"),
+        @Index(name = "idx_books_price", columnList = "price"),
+        @Index(name = "idx_books_published_date", columnList = "published_date")
+})
 public class Book {
     
     @Id
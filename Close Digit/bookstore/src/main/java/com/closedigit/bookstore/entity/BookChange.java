@@ -0,0 +1,78 @@
+package com.closedigit.bookstore.entity;
+
+import java.time.LocalDateTime;
+
+import com.closedigit.bookstore.event.BookChangedEvent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * Append-only outbox entry for a book mutation.
+ * Written in the same transaction as the change itself; the generated id is the feed sequence.
+ */
+@Entity
+@Table(name = "book_changes", indexes = @Index(name = "idx_book_changes_changed_at", columnList = "changed_at"))
+public class BookChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sequence;
+
+    @Column(name = "book_id", nullable = false, updatable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, updatable = false, length = 10)
+    private BookChangedEvent.Type changeType;
+
+    /**
+     * JSON of the book after the change; null for deletes
+     */
+    @Column(updatable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    public BookChange() {}
+
+    public BookChange(Long bookId, BookChangedEvent.Type changeType, String payload) {
+        this.bookId = bookId;
+        this.changeType = changeType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        changedAt = LocalDateTime.now();
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public BookChangedEvent.Type getChangeType() {
+        return changeType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
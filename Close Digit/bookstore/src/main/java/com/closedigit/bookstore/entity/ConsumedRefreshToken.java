@@ -0,0 +1,59 @@
+package com.closedigit.bookstore.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A refresh token that has been exchanged once and can never be exchanged again.
+ * The unique {@code token_id} column is the claim: of concurrent inserts of the same token, on any
+ * node, exactly one succeeds. Rows are purged once {@code expiresAt} has passed.
+ */
+@Entity
+@Table(name = "consumed_refresh_tokens",
+        indexes = @Index(name = "idx_consumed_refresh_tokens_expires_at", columnList = "expires_at"))
+public class ConsumedRefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false, unique = true, updatable = false, length = 64)
+    private String tokenId;
+
+    @Column(nullable = false, updatable = false, length = 50)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    public ConsumedRefreshToken() {}
+
+    public ConsumedRefreshToken(String tokenId, String username, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
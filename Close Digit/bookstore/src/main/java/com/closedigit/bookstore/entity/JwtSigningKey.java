@@ -0,0 +1,94 @@
+package com.closedigit.bookstore.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Persisted JWT signing key pair, shared by every node through the database.
+ * A key is published as soon as it is stored, signs once {@code activatedAt} is set, and keeps
+ * verifying after it is retired until {@code verifiesUntil}; the row is deleted after that.
+ * Key material is stored base64: the public key X.509-encoded, the private key PKCS#8-encoded and
+ * encrypted by the key ring (AES-GCM, random IV prepended).
+ */
+@Entity
+@Table(name = "jwt_signing_keys")
+public class JwtSigningKey {
+
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    @Column(nullable = false, updatable = false, length = 10)
+    private String algorithm;
+
+    @Column(name = "private_key", nullable = false, updatable = false, length = 512)
+    private String privateKey;
+
+    @Column(name = "public_key", nullable = false, updatable = false, length = 512)
+    private String publicKey;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "activated_at")
+    private Instant activatedAt;
+
+    @Column(name = "verifies_until")
+    private Instant verifiesUntil;
+
+    public JwtSigningKey() {}
+
+    public JwtSigningKey(String kid, String algorithm, String privateKey, String publicKey, Instant createdAt) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Signing new tokens: activated and not retired
+     */
+    public boolean isActive() {
+        return activatedAt != null && verifiesUntil == null;
+    }
+
+    /**
+     * Published, waiting to be activated
+     */
+    public boolean isPending() {
+        return activatedAt == null && verifiesUntil == null;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getActivatedAt() {
+        return activatedAt;
+    }
+
+    public Instant getVerifiesUntil() {
+        return verifiesUntil;
+    }
+}
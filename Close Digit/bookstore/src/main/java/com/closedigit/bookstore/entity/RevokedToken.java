@@ -0,0 +1,85 @@
+package com.closedigit.bookstore.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Persisted token revocation, reloaded into memory at startup.
+ * Either a single token by {@code jti}, or every token of {@code username} issued before
+ * {@code issuedBefore}. Rows are purged once {@code expiresAt} has passed, since the tokens they
+ * cover can no longer be used anyway. {@code createdAt} lets other nodes poll for new revocations.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_created_at", columnList = "created_at")})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", unique = true, updatable = false, length = 64)
+    private String tokenId;
+
+    @Column(nullable = false, updatable = false, length = 50)
+    private String username;
+
+    @Column(name = "issued_before", updatable = false)
+    private Instant issuedBefore;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public RevokedToken() {}
+
+    private RevokedToken(String tokenId, String username, Instant issuedBefore, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.issuedBefore = issuedBefore;
+        this.expiresAt = expiresAt;
+        this.createdAt = Instant.now();
+    }
+
+    public static RevokedToken token(String tokenId, String username, Instant expiresAt) {
+        return new RevokedToken(tokenId, username, null, expiresAt);
+    }
+
+    public static RevokedToken allTokensOf(String username, Instant issuedBefore, Instant expiresAt) {
+        return new RevokedToken(null, username, issuedBefore, expiresAt);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
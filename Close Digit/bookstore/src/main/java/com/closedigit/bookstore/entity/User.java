@@ -17,7 +17,10 @@ import java.util.List;
  * Implements UserDetails for Spring Security integration
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role", columnList = "role"),
+        @Index(name = "idx_users_created_at", columnList = "created_at")
+})
 public class User implements UserDetails {
     
     @Id
@@ -0,0 +1,31 @@
+package com.closedigit.bookstore.event;
+
+import com.closedigit.bookstore.dto.BookDto;
+
+/**
+ * Published by BookService whenever a book is created, updated or deleted.
+ * Carries the state before and after the change; {@code before} is null for creates and
+ * {@code after} is null for deletes.
+ */
+public record BookChangedEvent(Type type, BookDto before, BookDto after) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static BookChangedEvent created(BookDto after) {
+        return new BookChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static BookChangedEvent updated(BookDto before, BookDto after) {
+        return new BookChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static BookChangedEvent deleted(BookDto before) {
+        return new BookChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Long bookId() {
+        return after != null ? after.id() : before.id();
+    }
+}
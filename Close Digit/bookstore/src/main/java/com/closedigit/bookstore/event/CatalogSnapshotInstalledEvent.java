@@ -0,0 +1,8 @@
+package com.closedigit.bookstore.event;
+
+/**
+ * Published by CatalogSnapshotManager after a rebuilt snapshot replaces the previous one, so caches of
+ * pages read from the previous snapshot can be dropped.
+ */
+public record CatalogSnapshotInstalledEvent(int books) {
+}
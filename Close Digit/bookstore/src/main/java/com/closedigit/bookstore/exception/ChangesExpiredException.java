@@ -0,0 +1,20 @@
+package com.closedigit.bookstore.exception;
+
+/**
+ * Exception thrown when a change feed cursor points behind the retained changes, so the
+ * consumer has missed purged changes and must resync from the catalog
+ */
+public class ChangesExpiredException extends RuntimeException {
+
+    private final long oldestRetainedSequence;
+
+    public ChangesExpiredException(long since, long oldestRetainedSequence) {
+        super("Changes after sequence " + since + " have been purged; the oldest retained change is "
+                + oldestRetainedSequence + ". Resync from the catalog and follow the feed from its current position");
+        this.oldestRetainedSequence = oldestRetainedSequence;
+    }
+
+    public long getOldestRetainedSequence() {
+        return oldestRetainedSequence;
+    }
+}
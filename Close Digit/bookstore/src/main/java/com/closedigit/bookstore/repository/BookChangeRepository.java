@@ -0,0 +1,40 @@
+package com.closedigit.bookstore.repository;
+
+import com.closedigit.bookstore.entity.BookChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the book change outbox
+ */
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    List<BookChange> findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequenceAsc(Long after, Long upTo,
+            Limit limit);
+
+    @Query("select coalesce(max(c.sequence), 0) from BookChange c")
+    long findMaxSequence();
+
+    /**
+     * Oldest retained sequence, 0 when the outbox is empty
+     */
+    @Query("select coalesce(min(c.sequence), 0) from BookChange c")
+    long findMinSequence();
+
+    /**
+     * Highest sequence that a purge with this cutoff would delete, 0 if none
+     */
+    @Query("select coalesce(max(c.sequence), 0) from BookChange c where c.changedAt < :cutoff")
+    long findMaxSequenceChangedBefore(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from BookChange c where c.changedAt < :cutoff")
+    int deleteChangedBefore(LocalDateTime cutoff);
+}
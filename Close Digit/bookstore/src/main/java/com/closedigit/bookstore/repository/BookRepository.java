@@ -1,17 +1,78 @@
 package com.closedigit.bookstore.repository;
 
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.dto.BookStatsRow;
 import com.closedigit.bookstore.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for Book entity
  * Extends JpaRepository for basic CRUD operations
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookSearchRepository {
     
     boolean existsByIsbn(String isbn);
+
+    /**
+     * Read-only page of books selected straight into DTOs.
+     * Nothing is attached to the persistence context, so there are no dirty-checking snapshots
+     * and no entity-to-DTO copy per row.
+     */
+    @Query(value = "select " + BOOK_DTO_PROJECTION + " from Book b",
+            countQuery = "select count(b) from Book b")
+    Page<BookDto> findAllProjectedBy(Pageable pageable);
+
+    /**
+     * Books with the given ids as DTOs, in one IN query; ids without a book are simply absent
+     */
+    @Query("select " + BOOK_DTO_PROJECTION + " from Book b where b.id in :ids")
+    List<BookDto> findAllProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the whole catalog as DTOs with a JDBC cursor, for the snapshot rebuild; must be consumed
+     * inside a transaction
+     */
+    @Query("select " + BOOK_DTO_PROJECTION + " from Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    Stream<BookDto> streamAllProjectedBy(Sort sort);
+
+    /**
+     * One keyset-paged chunk of the catalog; the id is appended to the sort so positions are unique.
+     * Keyset positions cannot step over null sort keys, so the sort must be on non-null columns
+     */
+    Window<Book> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Per-genre aggregates split by published date, used to rebuild catalog statistics
+     */
+    @Query("select new com.closedigit.bookstore.dto.BookStatsRow(b.genre, b.publishedDate, count(b), sum(b.price)) "
+            + "from Book b group by b.genre, b.publishedDate")
+    List<BookStatsRow> aggregateByGenreAndPublishedDate();
+
+    /**
+     * Per-author aggregates split by published date, used to rebuild catalog statistics
+     */
+    @Query("select new com.closedigit.bookstore.dto.BookStatsRow(b.author, b.publishedDate, count(b), sum(b.price)) "
+            + "from Book b group by b.author, b.publishedDate")
+    List<BookStatsRow> aggregateByAuthorAndPublishedDate();
+
+    String BOOK_DTO_PROJECTION = "new com.closedigit.bookstore.dto.BookDto("
+            + "b.id, b.title, b.author, b.publishedDate, b.genre, b.price, b.isbn)";
 }
\ No newline at end of file
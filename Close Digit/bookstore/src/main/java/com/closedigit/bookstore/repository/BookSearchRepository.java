@@ -0,0 +1,56 @@
+package com.closedigit.bookstore.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.entity.Book;
+
+/**
+ * Criteria-based book queries that select straight into DTOs
+ */
+public interface BookSearchRepository {
+
+    /**
+     * Page of books matching the specification, projected into DTOs
+     */
+    Page<BookDto> findAllProjected(Specification<Book> specification, Pageable pageable);
+
+    /**
+     * Book counts per genre and price bucket for the matching books, in one grouped query
+     */
+    List<FacetRow> countFacets(Specification<Book> specification);
+
+    record FacetRow(String genre, PriceBucket priceBucket, long count) {}
+
+    /**
+     * Price ranges used for faceting; lower bound inclusive, upper bound exclusive
+     */
+    enum PriceBucket {
+        UNDER_10("0-10", new BigDecimal("10")),
+        FROM_10_TO_25("10-25", new BigDecimal("25")),
+        FROM_25_TO_50("25-50", new BigDecimal("50")),
+        FROM_50_TO_100("50-100", new BigDecimal("100")),
+        OVER_100("100+", null);
+
+        private final String label;
+        private final BigDecimal upperBound;
+
+        PriceBucket(String label, BigDecimal upperBound) {
+            this.label = label;
+            this.upperBound = upperBound;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public BigDecimal getUpperBound() {
+            return upperBound;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.closedigit.bookstore.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.entity.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of {@link BookSearchRepository}
+ */
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private final EntityManager entityManager;
+
+    BookSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<BookDto> findAllProjected(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<BookDto> query = cb.createQuery(BookDto.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(cb.construct(BookDto.class,
+                root.get("id"), root.get("title"), root.get("author"), root.get("publishedDate"),
+                root.get("genre"), root.get("price"), root.get("isbn")));
+        query.where(specification.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<BookDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<FacetRow> countFacets(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Expression<String> genre = root.get("genre");
+        Expression<Integer> bucket = priceBucket(cb, root.get("price"));
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(genre, bucket, count);
+        query.where(specification.toPredicate(root, query, cb));
+        query.groupBy(genre, bucket);
+
+        PriceBucket[] buckets = PriceBucket.values();
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new FacetRow(row.get(genre), buckets[row.get(bucket)], row.get(count)))
+                .toList();
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(cb.count(root));
+        query.where(specification.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Ordinal of the {@link PriceBucket} the price falls into
+     */
+    private static Expression<Integer> priceBucket(CriteriaBuilder cb, Expression<BigDecimal> price) {
+        PriceBucket[] buckets = PriceBucket.values();
+        CriteriaBuilder.Case<Integer> bucketCase = cb.selectCase();
+        for (int i = 0; i < buckets.length - 1; i++) {
+            bucketCase = bucketCase.when(cb.lessThan(price, cb.literal(buckets[i].getUpperBound())), cb.literal(i));
+        }
+        return bucketCase.otherwise(cb.literal(buckets.length - 1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.closedigit.bookstore.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.closedigit.bookstore.dto.BookFilter;
+import com.closedigit.bookstore.entity.Book;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * JPA specifications for filtering books.
+ * Every predicate is a plain comparison on an indexed column so the planner can use the
+ * indexes declared on {@link Book}.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {}
+
+    public static Specification<Book> matching(BookFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.genres() != null && !filter.genres().isEmpty()) {
+                predicates.add(root.get("genre").in(filter.genres()));
+            }
+            if (filter.author() != null && !filter.author().isBlank()) {
+                predicates.add(cb.equal(root.get("author"), filter.author().trim()));
+            }
+            if (filter.priceMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.priceMin()));
+            }
+            if (filter.priceMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.priceMax()));
+            }
+            if (filter.publishedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("publishedDate"), filter.publishedFrom()));
+            }
+            if (filter.publishedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("publishedDate"), filter.publishedTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
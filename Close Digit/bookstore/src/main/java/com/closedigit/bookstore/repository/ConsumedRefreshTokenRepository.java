@@ -0,0 +1,20 @@
+package com.closedigit.bookstore.repository;
+
+import com.closedigit.bookstore.entity.ConsumedRefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository for refresh tokens that have already been exchanged
+ */
+@Repository
+public interface ConsumedRefreshTokenRepository extends JpaRepository<ConsumedRefreshToken, Long> {
+
+    @Modifying
+    @Query("delete from ConsumedRefreshToken c where c.expiresAt < :now")
+    int deleteExpiredBefore(Instant now);
+}
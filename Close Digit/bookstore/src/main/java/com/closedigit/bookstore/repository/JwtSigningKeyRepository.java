@@ -0,0 +1,35 @@
+package com.closedigit.bookstore.repository;
+
+import com.closedigit.bookstore.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the shared JWT signing key ring.
+ * State changes are conditional updates, so when several nodes act on the ring at once only one
+ * of them changes a given key.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    @Query("select k from JwtSigningKey k where k.algorithm = :algorithm"
+            + " and (k.verifiesUntil is null or k.verifiesUntil > :now) order by k.createdAt, k.kid")
+    List<JwtSigningKey> findVerifying(String algorithm, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JwtSigningKey k set k.activatedAt = :now where k.kid = :kid and k.activatedAt is null")
+    int activate(String kid, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JwtSigningKey k set k.verifiesUntil = :verifiesUntil where k.kid = :kid and k.verifiesUntil is null")
+    int retire(String kid, Instant verifiesUntil);
+
+    @Modifying
+    @Query("delete from JwtSigningKey k where k.verifiesUntil < :now")
+    int deleteExpiredBefore(Instant now);
+}
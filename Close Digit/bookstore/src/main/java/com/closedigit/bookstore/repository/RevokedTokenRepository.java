@@ -0,0 +1,27 @@
+package com.closedigit.bookstore.repository;
+
+import com.closedigit.bookstore.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for persisted token revocations
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findByCreatedAtAfterAndExpiresAtAfter(Instant createdAfter, Instant now);
+
+    boolean existsByTokenId(String tokenId);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpiredBefore(Instant now);
+}
@@ -0,0 +1,33 @@
+package com.closedigit.bookstore.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.closedigit.bookstore.dto.UserDto;
+import com.closedigit.bookstore.entity.User;
+
+/**
+ * Criteria-based user queries that select straight into DTOs, so password hashes are never read
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Page of users matching the specification, projected into DTOs
+     */
+    Page<UserDto> findAllProjected(Specification<User> specification, Pageable pageable);
+
+    /**
+     * Up to {@code limit} matching users in ascending id order, without a count query
+     */
+    List<UserDto> findProjectedInIdOrder(Specification<User> specification, int limit);
+
+    /**
+     * Stream matching users as DTOs with a JDBC cursor; must be consumed inside a transaction
+     */
+    Stream<UserDto> streamProjected(Specification<User> specification, Sort sort);
+}
@@ -0,0 +1,56 @@
+package com.closedigit.bookstore.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.closedigit.bookstore.dto.UserFilter;
+import com.closedigit.bookstore.entity.User;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * JPA specifications for filtering users.
+ * Role and created-at use the indexes declared on {@link User}; the username prefix is a
+ * left-anchored LIKE, which the unique username index can serve.
+ */
+public final class UserSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserSpecifications() {}
+
+    public static Specification<User> matching(UserFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.role() != null) {
+                predicates.add(cb.equal(root.get("role"), filter.role()));
+            }
+            if (filter.createdFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom().atStartOfDay()));
+            }
+            if (filter.createdTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.createdTo().plusDays(1).atStartOfDay()));
+            }
+            if (filter.usernamePrefix() != null && !filter.usernamePrefix().isBlank()) {
+                predicates.add(cb.like(root.get("username"), escapeLike(filter.usernamePrefix().trim()) + "%",
+                        LIKE_ESCAPE));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Restrict to ids after the keyset cursor
+     */
+    public static Specification<User> idAfter(Long afterId) {
+        return (root, query, cb) -> afterId == null ? cb.conjunction() : cb.greaterThan(root.get("id"), afterId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
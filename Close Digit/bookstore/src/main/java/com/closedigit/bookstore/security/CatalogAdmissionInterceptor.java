@@ -0,0 +1,180 @@
+package com.closedigit.bookstore.security;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.closedigit.bookstore.entity.Role;
+import com.closedigit.bookstore.exception.RateLimitExceededException;
+import com.closedigit.bookstore.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Request admission for the book endpoints.
+ * Applies, in order: the caller's role-specific page size ceiling, a per-principal rate limit
+ * and a global cap on in-flight (DB-backed) requests. Limits are configured per {@link Role} under
+ * {@code catalog.admission.<role>.*}.
+ * Streamed catalog exports run for as long as the client reads, so they take a permit from a separate,
+ * smaller pool instead of an in-flight one; a few slow readers cannot crowd out ordinary requests.
+ * Rejections are counted and logged at DEBUG; a periodic WARN line summarises them, so overload does
+ * not turn into a log storm.
+ */
+@Component
+public class CatalogAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogAdmissionInterceptor.class);
+
+    private static final String ADMITTED_ATTRIBUTE = CatalogAdmissionInterceptor.class.getName() + ".admitted";
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final String STREAM_PATH = "/api/books/stream";
+
+    private final Map<Role, RoleLimits> limits = new EnumMap<>(Role.class);
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Semaphore streams;
+    private final int maxStreams;
+    private final Counter rateLimited;
+    private final Counter shed;
+    private final LongAdder pendingRateLimited = new LongAdder();
+    private final LongAdder pendingShed = new LongAdder();
+
+    public CatalogAdmissionInterceptor(Environment environment, MeterRegistry meterRegistry) {
+        for (Role role : Role.values()) {
+            String prefix = "catalog.admission." + role.name().toLowerCase(Locale.ROOT) + ".";
+            int burst = environment.getProperty(prefix + "burst", Integer.class, 100);
+            int perMinute = environment.getProperty(prefix + "requests-per-minute", Integer.class, 600);
+            int maxPageSize = environment.getProperty(prefix + "max-page-size", Integer.class, 100);
+            limits.put(role, new RoleLimits(new TokenBucketRateLimiter(burst, perMinute), maxPageSize));
+        }
+        this.maxInFlight = environment.getProperty("catalog.admission.max-in-flight", Integer.class, 64);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxStreams = environment.getProperty("catalog.admission.max-streams", Integer.class, 4);
+        this.streams = new Semaphore(maxStreams);
+
+        Gauge.builder("catalog.requests.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Book requests currently holding an admission permit")
+                .register(meterRegistry);
+        this.rateLimited = Counter.builder("catalog.requests.rejected")
+                .description("Book requests rejected by admission control")
+                .tag("reason", "rate-limit")
+                .register(meterRegistry);
+        this.shed = Counter.builder("catalog.requests.rejected")
+                .description("Book requests rejected by admission control")
+                .tag("reason", "overload")
+                .register(meterRegistry);
+        Gauge.builder("catalog.streams.open", streams, s -> maxStreams - s.availablePermits())
+                .description("Streamed catalog exports currently holding a stream permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async (streamed) responses re-enter the interceptor on dispatch; they were admitted already
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return true;
+        }
+
+        RoleLimits roleLimits = limits.get(resolveRole(authentication));
+
+        String size = request.getParameter("size");
+        if (size != null && exceeds(size, roleLimits.maxPageSize())) {
+            throw new IllegalArgumentException("Page size must not exceed " + roleLimits.maxPageSize());
+        }
+
+        long waitNanos = roleLimits.rateLimiter().tryAcquire(authentication.getName());
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            pendingRateLimited.increment();
+            logger.debug("Catalog rate limit exceeded for user: {}", authentication.getName());
+            throw new RateLimitExceededException("Too many requests, please slow down",
+                    TokenBucketRateLimiter.toRetryAfterSeconds(waitNanos));
+        }
+
+        boolean stream = STREAM_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+        Semaphore permits = stream ? streams : inFlight;
+        if (!permits.tryAcquire()) {
+            shed.increment();
+            pendingShed.increment();
+            logger.debug("Catalog {} limit of {} reached, shedding request", stream ? "stream" : "in-flight",
+                    stream ? maxStreams : maxInFlight);
+            throw new ServiceOverloadedException("Catalog is busy, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, permits);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) instanceof Semaphore permits) {
+            request.removeAttribute(ADMITTED_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    /**
+     * One WARN line for the requests rejected since the previous run, if any
+     */
+    @Scheduled(fixedDelayString = "${catalog.admission.log-interval-ms:60000}")
+    public void logRejectedRequests() {
+        long byRate = pendingRateLimited.sumThenReset();
+        long byLoad = pendingShed.sumThenReset();
+        if (byRate + byLoad > 0) {
+            logger.warn("Rejected {} catalog request(s) since the last report: {} rate limited, {} shed under load",
+                    byRate + byLoad, byRate, byLoad);
+        }
+    }
+
+    /**
+     * Forget per-principal buckets that have fully refilled
+     */
+    @Scheduled(fixedDelayString = "${catalog.admission.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        limits.values().forEach(roleLimits -> roleLimits.rateLimiter().evictIdle());
+    }
+
+    /**
+     * Non-numeric sizes are left to the controller's parameter binding
+     */
+    private static boolean exceeds(String size, int maxPageSize) {
+        try {
+            return Long.parseLong(size.trim()) > maxPageSize;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private Role resolveRole(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (("ROLE_" + Role.ADMIN.name()).equals(authority.getAuthority())) {
+                return Role.ADMIN;
+            }
+        }
+        return Role.USER;
+    }
+
+    private record RoleLimits(TokenBucketRateLimiter rateLimiter, int maxPageSize) {}
+}
@@ -0,0 +1,144 @@
+package com.closedigit.bookstore.security;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers CORS preflight requests ahead of the security filter chain.
+ * The response headers for each origin, method and requested headers combination are computed once
+ * from the {@link CorsConfigurationSource} and replayed afterwards, so a preflight costs no token
+ * parsing or user lookup. Every other request passes through untouched.
+ */
+public class CorsPreflightFilter extends OncePerRequestFilter {
+
+    private static final int MAX_CACHED_RESPONSES = 1024;
+    private static final String VARY_VALUE = String.join(", ", HttpHeaders.ORIGIN,
+            HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final Map<PreflightKey, PreflightResponse> responses = new ConcurrentHashMap<>();
+
+    private final Counter allowedPreflights;
+    private final Counter rejectedPreflights;
+    private final Counter otherRequests;
+
+    public CorsPreflightFilter(CorsConfigurationSource corsConfigurationSource, MeterRegistry meterRegistry) {
+        this.corsConfigurationSource = corsConfigurationSource;
+
+        this.allowedPreflights = Counter.builder("http.cors.requests")
+                .description("Requests seen by the CORS preflight filter")
+                .tag("type", "preflight")
+                .tag("outcome", "allowed")
+                .register(meterRegistry);
+        this.rejectedPreflights = Counter.builder("http.cors.requests")
+                .description("Requests seen by the CORS preflight filter")
+                .tag("type", "preflight")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.otherRequests = Counter.builder("http.cors.requests")
+                .description("Requests seen by the CORS preflight filter")
+                .tag("type", "other")
+                .tag("outcome", "passed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!CorsUtils.isPreFlightRequest(request)) {
+            otherRequests.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CorsConfiguration config = corsConfigurationSource.getCorsConfiguration(request);
+        PreflightKey key = new PreflightKey(config, request.getHeader(HttpHeaders.ORIGIN),
+                request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD),
+                request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS));
+
+        PreflightResponse preflight = responses.get(key);
+        if (preflight == null) {
+            preflight = resolve(key);
+            if (responses.size() >= MAX_CACHED_RESPONSES) {
+                responses.clear();
+            }
+            responses.put(key, preflight);
+        }
+
+        response.setHeader(HttpHeaders.VARY, VARY_VALUE);
+        if (preflight == PreflightResponse.REJECTED) {
+            rejectedPreflights.increment();
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Invalid CORS request");
+            return;
+        }
+
+        allowedPreflights.increment();
+        preflight.headers().forEach(response::setHeader);
+        response.setStatus(HttpServletResponse.SC_OK);
+    }
+
+    /**
+     * Same checks as Spring's DefaultCorsProcessor, evaluated once per key
+     */
+    private static PreflightResponse resolve(PreflightKey key) {
+        CorsConfiguration config = key.config();
+        if (config == null) {
+            return PreflightResponse.REJECTED;
+        }
+
+        String allowedOrigin = config.checkOrigin(key.origin());
+        List<HttpMethod> allowedMethods = config.checkHttpMethod(HttpMethod.valueOf(key.method()));
+        List<String> requestHeaders = StringUtils.hasText(key.headers())
+                ? List.of(StringUtils.tokenizeToStringArray(key.headers(), ","))
+                : List.of();
+        List<String> allowedHeaders = config.checkHeaders(requestHeaders);
+        if (allowedOrigin == null || allowedMethods == null
+                || (!requestHeaders.isEmpty() && allowedHeaders == null)) {
+            return PreflightResponse.REJECTED;
+        }
+
+        Map<String, String> responseHeaders = new LinkedHashMap<>();
+        responseHeaders.put(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
+        responseHeaders.put(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                String.join(",", allowedMethods.stream().map(HttpMethod::name).toList()));
+        if (allowedHeaders != null && !allowedHeaders.isEmpty()) {
+            responseHeaders.put(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, String.join(",", allowedHeaders));
+        }
+        if (Boolean.TRUE.equals(config.getAllowCredentials())) {
+            responseHeaders.put(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        }
+        if (config.getMaxAge() != null) {
+            responseHeaders.put(HttpHeaders.ACCESS_CONTROL_MAX_AGE, config.getMaxAge().toString());
+        }
+        return new PreflightResponse(responseHeaders);
+    }
+
+    /**
+     * CorsConfiguration has identity equality, so keys are scoped to the matched configuration
+     */
+    private record PreflightKey(CorsConfiguration config, String origin, String method, String headers) {}
+
+    private record PreflightResponse(Map<String, String> headers) {
+
+        static final PreflightResponse REJECTED = new PreflightResponse(Map.of());
+    }
+}
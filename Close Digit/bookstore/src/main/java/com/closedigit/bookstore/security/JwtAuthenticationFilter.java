@@ -1,17 +1,31 @@
 package com.closedigit.bookstore.security;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.closedigit.bookstore.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,19 +33,40 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * JWT Authentication Filter
- * Intercepts requests and validates JWT tokens
+ * Intercepts requests and validates JWT tokens. Public routes are skipped entirely, so a stale or
+ * malformed token sent to them is never parsed.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Routes that are permitAll in SecurityConfig (logout needs the caller's token); compiled once
+     */
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            new AndRequestMatcher(
+                    AntPathRequestMatcher.antMatcher("/api/auth/**"),
+                    new NegatedRequestMatcher(AntPathRequestMatcher.antMatcher("/api/auth/logout"))),
+            AntPathRequestMatcher.antMatcher("/.well-known/**"),
+            AntPathRequestMatcher.antMatcher("/h2-console/**"),
+            AntPathRequestMatcher.antMatcher("/actuator/health/**"));
     
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenFailureLog failureLog;
     
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationService tokenRevocationService,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-failures.log-interval-ms:60000}") long failureLogIntervalMillis) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.failureLog = new TokenFailureLog(meterRegistry, failureLogIntervalMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PUBLIC_ROUTES.matches(request);
     }
     
     @Override
@@ -40,43 +75,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
-        
         // Extract JWT token from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7); // Remove "Bearer " prefix
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7); // Remove "Bearer " prefix
             try {
-                username = jwtUtil.extractUsername(jwt);
+                authenticate(request, jwt);
             } catch (Exception e) {
-                logger.error("Error extracting username from JWT: {}", e.getMessage());
-            }
-        }
-        
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = 
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, 
-                                    null, 
-                                    userDetails.getAuthorities()
-                            );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    logger.debug("JWT authentication successful for user: {}", username);
-                } else {
-                    logger.warn("JWT token validation failed for user: {}", username);
-                }
-            } catch (Exception e) {
-                logger.error("Error during JWT authentication: {}", e.getMessage());
+                failureLog.record(e);
             }
         }
         
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Authenticates from the access token's claims alone: parsing verifies the signature and expiry,
+     * and the revocation check (which covers role changes and deleted users) is an in-memory lookup.
+     * No user is loaded from the database.
+     */
+    private void authenticate(HttpServletRequest request, String jwt) {
+        Claims claims = jwtUtil.extractAllClaims(jwt);
+        if (!JwtUtil.ACCESS_TOKEN.equals(claims.get(JwtUtil.TOKEN_TYPE_CLAIM, String.class))) {
+            throw new BadCredentialsException("Not an access token");
+        }
+        String username = claims.getSubject();
+        if (tokenRevocationService.isRevoked(claims.getId(), username, claims.getIssuedAt())) {
+            throw new TokenRevokedException("Token has been revoked for user " + username);
+        }
+
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        UserDetails userDetails = User.withUsername(username)
+                .password("")
+                .authorities(role == null ? List.of() : List.of(new SimpleGrantedAuthority(role)))
+                .build();
+
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        logger.debug("JWT authentication successful for user: {}", username);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,419 @@
+package com.closedigit.bookstore.security;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.closedigit.bookstore.entity.JwtSigningKey;
+import com.closedigit.bookstore.repository.JwtSigningKeyRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keys used to sign and verify JWTs, looked up by the token's {@code kid} header.
+ *
+ * HS256 mode (the default) keeps the single shared {@code jwt.secret} key, does not rotate and
+ * publishes no keys. In ES256 mode the ring is stored in the {@code jwt_signing_keys} table, so it
+ * survives restarts and every node signs with the same active P-256 key and verifies the others'
+ * tokens. The ring holds the active key, the next key (already published, so verifiers that cache
+ * the JWKS know it before it signs anything) and retired keys, which keep verifying until every token
+ * they signed has expired. Each node reloads the ring periodically and whenever a token names a kid
+ * it does not know; rotation is a conditional update, so only one node rotates a given key. Only
+ * public keys leave the ring, through {@link #publicJwks()}. Private keys are stored encrypted with
+ * AES-GCM under the key-encryption key from {@code jwt.signing.key-encryption-key}, which never
+ * reaches the database; the kid is bound as associated data, so a ciphertext cannot be moved to
+ * another row.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final String SECRET_KEY_ID = "hs256";
+
+    /** Reloads triggered by unknown kids happen at most this often, so forged kids cannot flood the database */
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 1000;
+
+    private static final String KEY_WRAP_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_WRAP_IV_BYTES = 12;
+    private static final int KEY_WRAP_TAG_BITS = 128;
+
+    private final SignatureAlgorithm algorithm;
+    private final long retentionMillis;
+    private final long rotationIntervalMillis;
+    private final JwtSigningKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LongSupplier clock;
+    private final SecretKey keyEncryptionKey;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastReloadMillis = new AtomicLong();
+
+    /** Every key that may verify a token, by kid */
+    private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+    private volatile SigningKey active;
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.signing.algorithm:HS256}") String algorithm,
+            @Value("${jwt.secret:}") String secret,
+            @Value("${jwt.refresh-expiration:604800000}") long maxTokenLifetimeMillis,
+            @Value("${jwt.signing.rotation-interval-ms:86400000}") long rotationIntervalMillis,
+            @Value("${jwt.signing.reload-interval-ms:60000}") long reloadIntervalMillis,
+            @Value("${jwt.signing.key-encryption-key:}") String keyEncryptionKey,
+            JwtSigningKeyRepository keyRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this(algorithm, secret, maxTokenLifetimeMillis + reloadIntervalMillis, rotationIntervalMillis,
+                keyEncryptionKey, keyRepository, transactionManager, System::currentTimeMillis);
+
+        Gauge.builder("auth.signing.keys", keys, Map::size)
+                .description("Keys currently able to verify tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param retentionMillis how long a retired key keeps verifying: the longest token lifetime, plus the
+     *                        reload interval during which other nodes may still sign with it
+     * @param keyEncryptionKey base64 AES key (256 bits) that encrypts stored private keys; ES256 only
+     */
+    JwtKeyRing(String algorithm, String secret, long retentionMillis, long rotationIntervalMillis,
+            String keyEncryptionKey, JwtSigningKeyRepository keyRepository, PlatformTransactionManager transactionManager,
+            LongSupplier clock) {
+        this.algorithm = SignatureAlgorithm.forName(algorithm.toUpperCase(Locale.ROOT));
+        this.retentionMillis = retentionMillis;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+        this.keyRepository = keyRepository;
+        this.clock = clock;
+
+        if (this.algorithm == SignatureAlgorithm.HS256) {
+            if (secret.isBlank()) {
+                throw new IllegalStateException("jwt.secret is required for HS256 signing");
+            }
+            Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            active = new SigningKey(SECRET_KEY_ID, key, key, Long.MAX_VALUE);
+            keys.put(active.kid(), active);
+            this.keyEncryptionKey = null;
+            transactionTemplate = null;
+        } else if (this.algorithm == SignatureAlgorithm.ES256) {
+            this.keyEncryptionKey = toKeyEncryptionKey(keyEncryptionKey);
+            transactionTemplate = new TransactionTemplate(transactionManager);
+            synchronize(Rotation.NONE);
+        } else {
+            throw new IllegalStateException("Unsupported JWT signing algorithm: " + algorithm);
+        }
+    }
+
+    private static SecretKey toKeyEncryptionKey(String encoded) {
+        if (encoded.isBlank()) {
+            throw new IllegalStateException("jwt.signing.key-encryption-key is required for ES256 signing");
+        }
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(encoded.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("jwt.signing.key-encryption-key must be base64", e);
+        }
+        if (key.length != 32) {
+            throw new IllegalStateException("jwt.signing.key-encryption-key must be a 256-bit AES key");
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The key new tokens are signed with
+     */
+    public SigningKey activeKey() {
+        return active;
+    }
+
+    /**
+     * Pick up keys stored by other nodes, and rotate once the active key has signed for the rotation interval
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval-ms:60000}",
+            initialDelayString = "${jwt.signing.reload-interval-ms:60000}")
+    public void reload() {
+        if (transactionTemplate != null) {
+            synchronize(Rotation.WHEN_DUE);
+        }
+    }
+
+    /**
+     * Promote the published next key to active and publish a fresh next key. The previous active key
+     * keeps verifying for the longest token lifetime, then is dropped.
+     */
+    public void rotate() {
+        if (transactionTemplate != null) {
+            synchronize(Rotation.NOW);
+        }
+    }
+
+    /**
+     * Public halves of all keys that can verify a token, as JWKs
+     */
+    public List<Map<String, Object>> publicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        long now = clock.getAsLong();
+        for (SigningKey key : keys.values()) {
+            if (key.verificationKey() instanceof ECPublicKey publicKey && key.verifiesAt(now)) {
+                jwks.add(toJwk(key.kid(), publicKey));
+            }
+        }
+        return jwks;
+    }
+
+    /**
+     * Called by the JWT parser for every token; a map lookup, so verification keys are built once per kid.
+     * A kid this node has not seen yet may have been published by another node since the last reload.
+     */
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        if (!algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Unexpected JWT signing algorithm: " + header.getAlgorithm());
+        }
+        // tokens issued before key ids were introduced carry none; only the shared secret can verify them
+        String kid = header.getKeyId() != null ? header.getKeyId() : SECRET_KEY_ID;
+        SigningKey key = keys.get(kid);
+        if (key == null && reloadAllowed()) {
+            reloadQuietly();
+            key = keys.get(kid);
+        }
+        if (key == null || !key.verifiesAt(clock.getAsLong())) {
+            throw new SignatureException("Unknown JWT signing key: " + kid);
+        }
+        return key.verificationKey();
+    }
+
+    private boolean reloadAllowed() {
+        if (transactionTemplate == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        long last = lastReloadMillis.get();
+        return now - last >= MIN_RELOAD_INTERVAL_MILLIS && lastReloadMillis.compareAndSet(last, now);
+    }
+
+    private void reloadQuietly() {
+        try {
+            synchronize(Rotation.NONE);
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Could not reload JWT signing keys: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void synchronize(Rotation rotation) {
+        String previousKid = active != null ? active.kid() : null;
+        List<JwtSigningKey> stored = transactionTemplate.execute(status -> reconcile(rotation));
+        install(stored);
+        lastReloadMillis.set(clock.getAsLong());
+
+        if (previousKid != null && !previousKid.equals(active.kid())) {
+            logger.info("JWT signing key is now {} ({} keys can verify tokens)", active.kid(), keys.size());
+        }
+    }
+
+    /**
+     * Bring the stored ring to one active and at least one published next key, rotating if asked to.
+     * Runs in one transaction; every state change is conditional on the row still being in the state this
+     * node read, so concurrent nodes converge on the same ring.
+     */
+    private List<JwtSigningKey> reconcile(Rotation rotation) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        keyRepository.deleteExpiredBefore(now);
+        List<JwtSigningKey> stored = keyRepository.findVerifying(algorithm.getValue(), now);
+
+        Optional<JwtSigningKey> current = current(stored);
+        if (current.isPresent() && rotation.isDue(current.get(), now, rotationIntervalMillis)) {
+            keyRepository.retire(current.get().getKid(), now.plusMillis(retentionMillis));
+            stored = keyRepository.findVerifying(algorithm.getValue(), now);
+            current = current(stored);
+        }
+        if (current.isEmpty()) {
+            JwtSigningKey pending = stored.stream().filter(JwtSigningKey::isPending).findFirst()
+                    .orElseGet(() -> keyRepository.save(generateKey(now)));
+            keyRepository.activate(pending.getKid(), now);
+            stored = keyRepository.findVerifying(algorithm.getValue(), now);
+            current = current(stored);
+        }
+        // two nodes activating at once leave two active keys; the older one is retired like a rotated key
+        for (JwtSigningKey key : stored) {
+            if (key.isActive() && !key.getKid().equals(current.get().getKid())) {
+                keyRepository.retire(key.getKid(), now.plusMillis(retentionMillis));
+            }
+        }
+        if (stored.stream().noneMatch(JwtSigningKey::isPending)) {
+            keyRepository.save(generateKey(now));
+        }
+        return keyRepository.findVerifying(algorithm.getValue(), now);
+    }
+
+    /**
+     * The most recently activated key that is not retired
+     */
+    private static Optional<JwtSigningKey> current(List<JwtSigningKey> stored) {
+        return stored.stream()
+                .filter(JwtSigningKey::isActive)
+                .max(Comparator.comparing(JwtSigningKey::getActivatedAt).thenComparing(JwtSigningKey::getKid));
+    }
+
+    private void install(List<JwtSigningKey> stored) {
+        Map<String, SigningKey> loaded = new HashMap<>();
+        for (JwtSigningKey row : stored) {
+            long verifiesUntil = row.getVerifiesUntil() != null ? row.getVerifiesUntil().toEpochMilli() : Long.MAX_VALUE;
+            SigningKey known = keys.get(row.getKid());
+            loaded.put(row.getKid(), known != null ? known.retireAt(verifiesUntil) : decode(row, verifiesUntil));
+        }
+        keys.putAll(loaded);
+        keys.keySet().retainAll(loaded.keySet());
+        active = loaded.get(current(stored).orElseThrow().getKid());
+    }
+
+    private JwtSigningKey generateKey(Instant now) {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        String kid = UUID.randomUUID().toString();
+        return new JwtSigningKey(kid, algorithm.getValue(), encrypt(kid, keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()), now);
+    }
+
+    private SigningKey decode(JwtSigningKey row, long verifiesUntil) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            Base64.Decoder decoder = Base64.getDecoder();
+            Key privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decrypt(row)));
+            Key publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(row.getPublicKey())));
+            return new SigningKey(row.getKid(), privateKey, publicKey, verifiesUntil);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored JWT signing key " + row.getKid() + " cannot be decoded", e);
+        }
+    }
+
+    /**
+     * Base64 of the random IV followed by the ciphertext and tag
+     */
+    private String encrypt(String kid, byte[] privateKey) {
+        try {
+            byte[] iv = new byte[KEY_WRAP_IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(KEY_WRAP_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(KEY_WRAP_TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            byte[] stored = new byte[iv.length + ciphertext.length];
+            System.arraycopy(iv, 0, stored, 0, iv.length);
+            System.arraycopy(ciphertext, 0, stored, iv.length, ciphertext.length);
+            return Base64.getEncoder().encodeToString(stored);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT signing key cannot be encrypted", e);
+        }
+    }
+
+    /**
+     * Fails when the row was written under another key-encryption key, or tampered with
+     */
+    private byte[] decrypt(JwtSigningKey row) throws GeneralSecurityException {
+        byte[] stored = Base64.getDecoder().decode(row.getPrivateKey());
+        Cipher cipher = Cipher.getInstance(KEY_WRAP_TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey,
+                new GCMParameterSpec(KEY_WRAP_TAG_BITS, stored, 0, KEY_WRAP_IV_BYTES));
+        cipher.updateAAD(row.getKid().getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, KEY_WRAP_IV_BYTES, stored.length - KEY_WRAP_IV_BYTES);
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+        jwk.put("x", toCoordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", toCoordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    /**
+     * Unsigned, left-padded to the 32-byte field size (RFC 7518 section 6.2.1.2)
+     */
+    private static String toCoordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[32];
+        int length = Math.min(bytes.length, padded.length);
+        System.arraycopy(bytes, bytes.length - length, padded, padded.length - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    private enum Rotation {
+        NONE, WHEN_DUE, NOW;
+
+        boolean isDue(JwtSigningKey current, Instant now, long rotationIntervalMillis) {
+            return this == NOW
+                    || this == WHEN_DUE && !current.getActivatedAt().plusMillis(rotationIntervalMillis).isAfter(now);
+        }
+    }
+
+    /**
+     * @param verifiesUntil epoch millis after which the key no longer verifies; {@code Long.MAX_VALUE} until retired
+     */
+    public record SigningKey(String kid, Key signingKey, Key verificationKey, long verifiesUntil) {
+
+        SigningKey retireAt(long epochMillis) {
+            return new SigningKey(kid, signingKey, verificationKey, epochMillis);
+        }
+
+        boolean verifiesAt(long epochMillis) {
+            return epochMillis < verifiesUntil;
+        }
+
+        /** Keeps key material out of logs */
+        @Override
+        public String toString() {
+            return "SigningKey[kid=" + kid + "]";
+        }
+    }
+}
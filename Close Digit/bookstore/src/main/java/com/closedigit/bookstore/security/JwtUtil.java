@@ -1,36 +1,49 @@
 package com.closedigit.bookstore.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * JWT utility class for token generation and validation
- * Handles JWT operations for authentication
+ * Handles JWT operations for authentication. Keys come from {@link JwtKeyRing}; every token names its
+ * signing key in the {@code kid} header.
  */
 @Component
 public class JwtUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    public static final String ROLE_CLAIM = "role";
     
-    @Value("${jwt.secret}")
-    private String secret;
-    
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final JwtKeyRing keyRing;
+
+    /** Thread-safe; resolves the verification key per token through the key ring */
+    private final JwtParser parser;
+
+    /** Access token lifetime */
+    private final long expiration;
+
+    private final long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(JwtKeyRing keyRing, @Value("${jwt.expiration}") long expiration,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshExpiration) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+        this.expiration = expiration;
+        this.refreshExpiration = refreshExpiration;
     }
     
     public String extractUsername(String token) {
@@ -46,40 +59,65 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (JwtException e) {
-            logger.error("Error parsing JWT token: {}", e.getMessage());
-            throw e;
-        }
+    /**
+     * Verify the signature and expiry and return the claims.
+     * Parse failures are left to the caller; the JWT filter aggregates them instead of logging each one
+     */
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
     
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
     
+    /**
+     * Short-lived access token; carries the role so requests are authorized from claims alone
+     */
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, new Date());
+    }
+
+    /**
+     * @param issuedAt the {@code iat} claim, see {@link com.closedigit.bookstore.service.TokenRevocationService#issueTimeFor}
+     */
+    public String generateToken(UserDetails userDetails, Date issuedAt) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
         // Add user role to claims
-        claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
-        return createToken(claims, userDetails.getUsername());
+        claims.put(ROLE_CLAIM, userDetails.getAuthorities().iterator().next().getAuthority());
+        return createToken(claims, userDetails.getUsername(), issuedAt, expiration);
+    }
+
+    /**
+     * Long-lived, single-use token accepted only by /api/auth/refresh
+     */
+    public String generateRefreshToken(UserDetails userDetails) {
+        return generateRefreshToken(userDetails, new Date());
+    }
+
+    public String generateRefreshToken(UserDetails userDetails, Date issuedAt) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        return createToken(claims, userDetails.getUsername(), issuedAt, refreshExpiration);
+    }
+
+    public long getAccessTokenLifetimeSeconds() {
+        return expiration / 1000;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+    private String createToken(Map<String, Object> claims, String subject, Date issuedAt, long lifetimeMillis) {
+        Date expiryDate = new Date(issuedAt.getTime() + lifetimeMillis);
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
         
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(now)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(issuedAt)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey.signingKey(), keyRing.getAlgorithm())
                 .compact();
     }
     
@@ -88,7 +126,7 @@ public class JwtUtil {
             final String username = extractUsername(token);
             return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
         } catch (JwtException e) {
-            logger.error("JWT token validation failed: {}", e.getMessage());
+            logger.debug("JWT token validation failed: {}", e.getMessage());
             return false;
         }
     }
@@ -97,12 +135,12 @@ public class JwtUtil {
         try {
             return !isTokenExpired(token);
         } catch (JwtException e) {
-            logger.error("JWT token is invalid: {}", e.getMessage());
+            logger.debug("JWT token is invalid: {}", e.getMessage());
             return false;
         }
     }
     
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractClaim(token, claims -> claims.get(ROLE_CLAIM, String.class));
     }
 }
\ No newline at end of file
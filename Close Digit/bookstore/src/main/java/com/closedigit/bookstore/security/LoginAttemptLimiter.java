@@ -0,0 +1,103 @@
+package com.closedigit.bookstore.security;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.closedigit.bookstore.exception.RateLimitExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Throttles login attempts per username and per client IP.
+ * Checked before any password verification, so a hammered account or a noisy client
+ * is turned away without spending a BCrypt round on it.
+ * Each rejection is logged at DEBUG only; a periodic WARN line summarises the rejections by key
+ * type, so a client hammering the endpoint cannot flood the log.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptLimiter.class);
+
+    private final TokenBucketRateLimiter usernameLimiter;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+    private final LongAdder pendingUsernameRejections = new LongAdder();
+    private final LongAdder pendingIpRejections = new LongAdder();
+
+    public LoginAttemptLimiter(
+            @Value("${auth.login-throttle.username.capacity:10}") int usernameCapacity,
+            @Value("${auth.login-throttle.username.refill-per-minute:10}") int usernameRefillPerMinute,
+            @Value("${auth.login-throttle.ip.capacity:50}") int ipCapacity,
+            @Value("${auth.login-throttle.ip.refill-per-minute:100}") int ipRefillPerMinute,
+            MeterRegistry meterRegistry) {
+        this.usernameLimiter = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPerMinute);
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute);
+
+        this.usernameRejections = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.buckets", () -> usernameLimiter.size() + ipLimiter.size())
+                .description("Login rate limiter buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume one attempt for the client and the username, or fail with 429
+     */
+    public void checkAttempt(String username, String clientIp) {
+        long waitNanos = ipLimiter.tryAcquire(clientIp);
+        if (waitNanos > 0) {
+            ipRejections.increment();
+            pendingIpRejections.increment();
+            logger.debug("Login throttled for client IP: {}", clientIp);
+            throw new RateLimitExceededException("Too many login attempts, please retry later", TokenBucketRateLimiter.toRetryAfterSeconds(waitNanos));
+        }
+
+        waitNanos = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+        if (waitNanos > 0) {
+            usernameRejections.increment();
+            pendingUsernameRejections.increment();
+            logger.debug("Login throttled for user: {}", username);
+            throw new RateLimitExceededException("Too many login attempts, please retry later", TokenBucketRateLimiter.toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    /**
+     * One WARN line for the attempts rejected since the previous run, if any
+     */
+    @Scheduled(fixedDelayString = "${auth.login-throttle.log-interval-ms:60000}")
+    public void logThrottledAttempts() {
+        long byIp = pendingIpRejections.sumThenReset();
+        long byUsername = pendingUsernameRejections.sumThenReset();
+        if (byIp + byUsername > 0) {
+            logger.warn("Throttled {} login attempt(s) since the last report: {} by client IP, {} by username",
+                    byIp + byUsername, byIp, byUsername);
+        }
+    }
+
+    /**
+     * Forget buckets that have fully refilled
+     */
+    @Scheduled(fixedDelayString = "${auth.login-throttle.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = usernameLimiter.evictIdle() + ipLimiter.evictIdle();
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle login rate limiter buckets", evicted);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.closedigit.bookstore.security;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Password hashing policy: which algorithm new hashes use and at what cost.
+ *
+ * The cost is calibrated once at startup against this host's CPU: the highest cost whose hash still fits
+ * in the target time, clamped to configured bounds. Hashes carry an {@code {id}} prefix, so stored hashes
+ * of another algorithm, an older (unprefixed) format or a lower cost still verify, and
+ * {@link PasswordEncoder#upgradeEncoding} reports them for rehashing on the next successful login.
+ */
+public final class PasswordHashingPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingPolicy.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int MIN_BCRYPT_STRENGTH = 4;
+    private static final int BCRYPT_PROBE_STRENGTH = 8;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private static final boolean ARGON2_AVAILABLE =
+            ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator", null);
+
+    private PasswordHashingPolicy() {
+    }
+
+    /**
+     * @param algorithm      {@value #BCRYPT} or {@value #ARGON2} (the latter needs BouncyCastle on the classpath)
+     * @param targetMillis   hashing time to aim for on this host
+     * @param minStrength    lower bound for the BCrypt strength
+     * @param maxStrength    upper bound for the BCrypt strength
+     * @param argon2MemoryKib memory per Argon2 hash; bounds hashing memory at pool size times this
+     */
+    public static PasswordEncoder create(String algorithm, long targetMillis, int minStrength, int maxStrength,
+            int argon2MemoryKib) {
+        String idForEncode = algorithm.toLowerCase(Locale.ROOT);
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode)) {
+            throw new IllegalStateException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        if (ARGON2.equals(idForEncode) && !ARGON2_AVAILABLE) {
+            throw new IllegalStateException("Argon2 password hashing requires BouncyCastle (bcprov) on the classpath");
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        // verifies bcrypt hashes, and upgrades them when a new one would be stronger
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(BCRYPT.equals(idForEncode)
+                ? calibrateBCrypt(targetMillis, minStrength, maxStrength)
+                : minStrength);
+        encoders.put(BCRYPT, bcrypt);
+
+        if (ARGON2_AVAILABLE) {
+            int iterations = ARGON2.equals(idForEncode)
+                    ? calibrateArgon2(targetMillis, argon2MemoryKib)
+                    : MIN_ARGON2_ITERATIONS;
+            encoders.put(ARGON2, argon2(argon2MemoryKib, iterations));
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // hashes stored before the {id} prefix was introduced
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    /**
+     * Cheapest valid BCrypt hashes, for the demo accounts seeded at startup. They are rehashed at the
+     * calibrated cost on their first login, so seeding adds almost nothing to cold start.
+     */
+    public static PasswordEncoder seedEncoder() {
+        return new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH)));
+    }
+
+    /**
+     * BCrypt doubles its work per strength step: extrapolate from a cheap probe
+     */
+    private static int calibrateBCrypt(long targetMillis, int minStrength, int maxStrength) {
+        long probeNanos = timeHash(new BCryptPasswordEncoder(BCRYPT_PROBE_STRENGTH));
+        double budget = targetMillis * 1_000_000.0 / probeNanos;
+        int strength = BCRYPT_PROBE_STRENGTH + (int) Math.floor(Math.log(budget) / Math.log(2));
+        int calibrated = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        logger.info("BCrypt calibrated to strength {} (strength {} took {} us, target {} ms)",
+                calibrated, BCRYPT_PROBE_STRENGTH, probeNanos / 1000, targetMillis);
+        return calibrated;
+    }
+
+    /**
+     * Argon2 time grows linearly with iterations at fixed memory
+     */
+    private static int calibrateArgon2(long targetMillis, int memoryKib) {
+        long probeNanos = timeHash(argon2(memoryKib, 1));
+        int calibrated = (int) Math.max(MIN_ARGON2_ITERATIONS, targetMillis * 1_000_000 / probeNanos);
+
+        logger.info("Argon2 calibrated to {} iterations at {} KiB (1 iteration took {} us, target {} ms)",
+                calibrated, memoryKib, probeNanos / 1000, targetMillis);
+        return calibrated;
+    }
+
+    /**
+     * Fastest of a few runs; the first one also warms up the JIT
+     */
+    private static long timeHash(PasswordEncoder encoder) {
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return Math.max(1, bestNanos);
+    }
+
+    private static PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, memoryKib, iterations);
+    }
+}
@@ -0,0 +1,83 @@
+package com.closedigit.bookstore.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token-bucket rate limiter without a global lock.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA form of a
+ * token bucket): a request is admitted when that time is no further ahead of now than the burst allowance,
+ * and admission advances it by one emission interval with a CAS. Buckets live in a
+ * {@link ConcurrentHashMap}, so contention is striped per key and there is no shared lock between keys.
+ */
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param capacity        maximum burst size
+     * @param refillPerMinute sustained number of permits per minute
+     */
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, int refillPerMinute, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("Rate limiter capacity and refill rate must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Try to take one permit for the key
+     *
+     * @return 0 when admitted, otherwise the number of nanoseconds until a permit is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nanoClock.getAsLong()));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = bucket.get();
+            long arrival = current - now > 0 ? current : now;
+            long waitNanos = arrival - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have fully refilled; they are indistinguishable from a fresh bucket
+     *
+     * @return number of buckets removed
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        return Math.max(0, before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Convert a wait returned by {@link #tryAcquire} into a whole-second Retry-After value
+     */
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
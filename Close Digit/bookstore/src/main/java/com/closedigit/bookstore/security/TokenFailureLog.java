@@ -0,0 +1,107 @@
+package com.closedigit.bookstore.security;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Aggregated, rate-limited logging of rejected bearer tokens.
+ * Every failure is counted under {@code auth.token.failures{reason}}, but at most one WARN line per
+ * interval is written, summarising the failures by reason since the previous line. A client replaying
+ * a bad token therefore cannot flood the log.
+ */
+public class TokenFailureLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenFailureLog.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastLoggedAt;
+
+    public TokenFailureLog(MeterRegistry meterRegistry, long intervalMillis) {
+        this(meterRegistry, intervalMillis, System::nanoTime);
+    }
+
+    TokenFailureLog(MeterRegistry meterRegistry, long intervalMillis, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nanoClock = nanoClock;
+        this.lastLoggedAt = new AtomicLong(nanoClock.getAsLong() - intervalNanos);
+    }
+
+    public void record(Exception failure) {
+        String reason = reasonOf(failure);
+        Counter.builder("auth.token.failures")
+                .description("Bearer tokens rejected by the JWT filter")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        pending.computeIfAbsent(reason, r -> new LongAdder()).increment();
+        logger.debug("Rejected bearer token ({}): {}", reason, failure.getMessage());
+
+        long now = nanoClock.getAsLong();
+        long last = lastLoggedAt.get();
+        if (now - last >= intervalNanos && lastLoggedAt.compareAndSet(last, now)) {
+            flush(now - last);
+        }
+    }
+
+    private void flush(long elapsedNanos) {
+        Map<String, Long> counts = new TreeMap<>();
+        pending.forEach((reason, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                counts.put(reason, value);
+            }
+        });
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        if (total > 0) {
+            logger.warn("Rejected {} bearer token(s) in the last {}s: {}", total,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos)), counts);
+        }
+    }
+
+    static String reasonOf(Exception failure) {
+        if (failure instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (failure instanceof SecurityException) {
+            return "signature";
+        }
+        if (failure instanceof MalformedJwtException || failure instanceof IllegalArgumentException) {
+            return "malformed";
+        }
+        if (failure instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        if (failure instanceof TokenRevokedException) {
+            return "revoked";
+        }
+        if (failure instanceof UsernameNotFoundException) {
+            return "unknown-user";
+        }
+        if (failure instanceof BadCredentialsException) {
+            return "wrong-type";
+        }
+        return "invalid";
+    }
+}
@@ -0,0 +1,13 @@
+package com.closedigit.bookstore.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Bearer token that is valid and unexpired but has been revoked
+ */
+public class TokenRevokedException extends AuthenticationException {
+
+    public TokenRevokedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.closedigit.bookstore.service;
 
+import java.util.Date;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,13 +9,20 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import com.closedigit.bookstore.dto.AuthRequest;
 import com.closedigit.bookstore.dto.AuthResponse;
 import com.closedigit.bookstore.dto.RegisterRequest;
 import com.closedigit.bookstore.dto.UserDto;
+import com.closedigit.bookstore.entity.User;
+import com.closedigit.bookstore.mapper.UserMapper;
 import com.closedigit.bookstore.security.JwtUtil;
+import com.closedigit.bookstore.security.LoginAttemptLimiter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 
 /**
  * Authentication service for handling login and registration
@@ -26,16 +35,26 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final UserMapper userMapper;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final TokenRevocationService tokenRevocationService;
     
-    public AuthService(AuthenticationManager authenticationManager, UserService userService, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, UserService userService, JwtUtil jwtUtil,
+            UserMapper userMapper, LoginAttemptLimiter loginAttemptLimiter,
+            TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.userMapper = userMapper;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
-    public AuthResponse login(AuthRequest authRequest) {
+    public AuthResponse login(AuthRequest authRequest, String clientIp) {
         logger.debug("Attempting to authenticate user: {}", authRequest.username());
         
+        loginAttemptLimiter.checkAttempt(authRequest.username(), clientIp);
+        
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -46,12 +65,10 @@ public class AuthService {
             
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             
-            String token = jwtUtil.generateToken(userDetails);
-            
             UserDto userDto = userService.getUserByUsername(authRequest.username());
             
             logger.info("User authenticated successfully: {}", authRequest.username());
-            return AuthResponse.create(token, userDto);
+            return issueTokens(userDetails, userDto);
             
         } catch (BadCredentialsException e) {
             logger.error("Authentication failed for user: {}", authRequest.username());
@@ -59,14 +76,75 @@ public class AuthService {
         }
     }
     
+    /**
+     * Exchange a refresh token for a new access and refresh token pair.
+     * This is the only point after login where the user is read from the database, so a deleted user or
+     * a changed role takes effect here. Refresh tokens are single use: the presented one is claimed
+     * atomically, so of concurrent refreshes with the same token only one gets a new pair.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        Claims claims = parseRefreshToken(refreshToken);
+        String username = claims.getSubject();
+        if (tokenRevocationService.isRevoked(claims.getId(), username, claims.getIssuedAt())
+                || !tokenRevocationService.claimToken(claims.getId(), username, claims.getExpiration())) {
+            logger.warn("Revoked refresh token presented for user: {}", username);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        
+        UserDetails userDetails;
+        try {
+            userDetails = userService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        
+        logger.debug("Tokens refreshed for user: {}", username);
+        return issueTokens(userDetails, userMapper.toDto((User) userDetails));
+    }
+    
+    /**
+     * Revoke the presented access token, and the refresh token when one is given, until they expire
+     */
+    public void logout(String accessToken, String refreshToken) {
+        Claims claims = jwtUtil.extractAllClaims(accessToken);
+        tokenRevocationService.revokeToken(claims.getId(), claims.getSubject(), claims.getExpiration());
+        
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Claims refreshClaims = parseRefreshToken(refreshToken);
+            if (claims.getSubject().equals(refreshClaims.getSubject())) {
+                tokenRevocationService.revokeToken(refreshClaims.getId(), refreshClaims.getSubject(),
+                        refreshClaims.getExpiration());
+            }
+        }
+        logger.info("User logged out: {}", claims.getSubject());
+    }
+    
     public AuthResponse register(RegisterRequest registerRequest) {
         logger.debug("Attempting to register user: {}", registerRequest.username());
         
-        UserDto userDto = userService.registerUser(registerRequest);
-        
-        AuthRequest authRequest = new AuthRequest(registerRequest.username(), registerRequest.password());
+        // The password was just hashed by createUser; sign the token from the saved entity
+        // instead of authenticating again (a second BCrypt round plus extra user queries)
+        User user = userService.createUser(registerRequest);
         
         logger.info("User registered successfully: {}", registerRequest.username());
-        return login(authRequest);
+        return issueTokens(user, userMapper.toDto(user));
+    }
+    
+    private AuthResponse issueTokens(UserDetails userDetails, UserDto userDto) {
+        Date issuedAt = tokenRevocationService.issueTimeFor(userDetails.getUsername());
+        return AuthResponse.create(jwtUtil.generateToken(userDetails, issuedAt),
+                jwtUtil.generateRefreshToken(userDetails, issuedAt), jwtUtil.getAccessTokenLifetimeSeconds(), userDto);
+    }
+    
+    private Claims parseRefreshToken(String refreshToken) {
+        try {
+            Claims claims = jwtUtil.extractAllClaims(refreshToken);
+            if (JwtUtil.REFRESH_TOKEN.equals(claims.get(JwtUtil.TOKEN_TYPE_CLAIM, String.class))) {
+                return claims;
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Unusable refresh token: {}", e.getMessage());
+        }
+        throw new BadCredentialsException("Invalid refresh token");
     }
 }
\ No newline at end of file
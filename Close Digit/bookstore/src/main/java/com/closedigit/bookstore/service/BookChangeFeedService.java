@@ -0,0 +1,303 @@
+package com.closedigit.bookstore.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.closedigit.bookstore.dto.BookChangeDto;
+import com.closedigit.bookstore.dto.BookChangesDto;
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.entity.BookChange;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.exception.ChangesExpiredException;
+import com.closedigit.bookstore.exception.ServiceOverloadedException;
+import com.closedigit.bookstore.repository.BookChangeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Change-data feed of book mutations backed by the {@code book_changes} outbox.
+ * Every change is appended in the transaction that makes it, so the feed never shows a change that
+ * rolled back and never misses one that committed. Consumers read batches after a sequence number and
+ * may long-poll: waiting requests are completed once the next change commits.
+ * Sequences are assigned at insert, so with concurrent writers a lower sequence can commit just after
+ * a higher one. Reads therefore stop at a watermark below the oldest sequence whose transaction is still
+ * open, and a cursor never moves past a change that has yet to commit. The in-flight sequences are tracked
+ * in memory, which assumes this node is the only writer of the outbox.
+ * Changes older than the retention period are purged; a cursor from before the purge would skip them
+ * silently, so reads behind the oldest retained change fail with {@link ChangesExpiredException}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeFeedService.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BookChangeRepository bookChangeRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor notificationExecutor;
+    private final int maxBatchSize;
+    private final int retentionDays;
+    private final int maxWaiters;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    /** Guards sequence assignment together with the bookkeeping below */
+    private final Object sequenceLock = new Object();
+    /** Sequences inserted by transactions that have not completed yet */
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    /** Highest sequence assigned so far, -1 until read from the outbox */
+    private long lastAssigned = -1;
+    /**
+     * Lowest sequence that may still be read: everything below it has been purged. -1 until read from the
+     * outbox; 0 while nothing is known to be purged. Raised by every purge on this node.
+     */
+    private volatile long oldestRetained = -1;
+
+    public BookChangeFeedService(BookChangeRepository bookChangeRepository, ObjectMapper objectMapper,
+            @Qualifier("applicationTaskExecutor") Executor notificationExecutor,
+            @Value("${catalog.changes.max-batch-size:500}") int maxBatchSize,
+            @Value("${catalog.changes.retention-days:7}") int retentionDays,
+            @Value("${catalog.changes.max-waiters:1000}") int maxWaiters) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.objectMapper = objectMapper;
+        this.notificationExecutor = notificationExecutor;
+        this.maxBatchSize = maxBatchSize;
+        this.retentionDays = retentionDays;
+        this.maxWaiters = maxWaiters;
+    }
+
+    /**
+     * Append the change to the outbox inside the publishing transaction.
+     * The insert is flushed under the sequence lock, so sequences enter the in-flight set in order.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(BookChangedEvent event) {
+        String payload = event.after() == null ? null : toJson(event.after());
+        long sequence;
+        synchronized (sequenceLock) {
+            initLastAssigned();
+            sequence = bookChangeRepository.saveAndFlush(new BookChange(event.bookId(), event.type(), payload))
+                    .getSequence();
+            inFlight.add(sequence);
+            lastAssigned = Math.max(lastAssigned, sequence);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // a rollback can release later changes just as a commit does
+                synchronized (sequenceLock) {
+                    inFlight.remove(sequence);
+                }
+                if (!waiters.isEmpty()) {
+                    notificationExecutor.execute(BookChangeFeedService.this::notifyWaiters);
+                }
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} changes with a sequence greater than {@code since}, oldest first
+     *
+     * @throws ChangesExpiredException when changes after {@code since} have already been purged
+     */
+    public BookChangesDto getChangesSince(long since, int limit) {
+        requireRetained(since);
+        return batchSince(since, limit);
+    }
+
+    private BookChangesDto batchSince(long since, int limit) {
+        int batchSize = clampLimit(limit);
+        List<BookChangeDto> changes = readCommitted(since, batchSize + 1);
+        return toBatch(since, changes, batchSize);
+    }
+
+    /**
+     * Completes as soon as there is at least one change after {@code since}, or exceptionally with
+     * {@link ChangesExpiredException} if a purge overtakes the cursor while waiting; never times out by itself
+     *
+     * @throws ServiceOverloadedException when {@code catalog.changes.max-waiters} requests are already waiting
+     * @throws ChangesExpiredException when changes after {@code since} have already been purged
+     */
+    public CompletableFuture<BookChangesDto> awaitChangesSince(long since, int limit) {
+        requireRetained(since);
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            throw new ServiceOverloadedException("Too many consumers are waiting for book changes, please retry shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+        Waiter waiter = new Waiter(since, clampLimit(limit), new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future().whenComplete((result, ex) -> {
+            waiters.remove(waiter);
+            waiterCount.decrementAndGet();
+        });
+
+        // registered before checking, so a change committed in between is not missed
+        BookChangesDto current = batchSince(since, limit);
+        if (!current.changes().isEmpty()) {
+            waiter.future().complete(current);
+        }
+        return waiter.future();
+    }
+
+    /**
+     * Drop outbox entries older than the retention period
+     */
+    @Scheduled(cron = "${catalog.changes.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpiredChanges() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long purgedThrough = bookChangeRepository.findMaxSequenceChangedBefore(cutoff);
+        int purged = bookChangeRepository.deleteChangedBefore(cutoff);
+        if (purged > 0) {
+            synchronized (sequenceLock) {
+                oldestRetained = Math.max(oldestRetained(), purgedThrough + 1);
+            }
+            logger.info("Purged {} book changes older than {} days", purged, retentionDays);
+        }
+    }
+
+    /**
+     * A cursor just below the oldest retained change has seen everything purged before it
+     */
+    private void requireRetained(long since) {
+        long oldest = oldestRetained();
+        if (since < oldest - 1) {
+            throw new ChangesExpiredException(since, oldest);
+        }
+    }
+
+    private long oldestRetained() {
+        long oldest = oldestRetained;
+        if (oldest < 0) {
+            synchronized (sequenceLock) {
+                initLastAssigned();
+                oldest = oldestRetained;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * One query for all waiting consumers, starting from the oldest cursor among them
+     */
+    private void notifyWaiters() {
+        List<Waiter> pending = waiters.stream().filter(waiter -> !waiter.future().isDone()).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long oldestSince = pending.stream().mapToLong(Waiter::since).min().getAsLong();
+        List<BookChangeDto> changes = readCommitted(oldestSince, maxBatchSize + 1);
+
+        long oldest = oldestRetained();
+        for (Waiter waiter : pending) {
+            if (waiter.since() < oldest - 1) {
+                waiter.future().completeExceptionally(new ChangesExpiredException(waiter.since(), oldest));
+                continue;
+            }
+            List<BookChangeDto> visible = changes.stream()
+                    .filter(change -> change.sequence() > waiter.since())
+                    .limit(waiter.limit() + 1L)
+                    .toList();
+            if (!visible.isEmpty()) {
+                waiter.future().complete(toBatch(waiter.since(), visible, waiter.limit()));
+            }
+        }
+    }
+
+    /**
+     * Changes after {@code since} up to the watermark: every sequence at or below it belongs to a
+     * transaction that has completed, so a committed change can no longer appear behind the cursor
+     */
+    private List<BookChangeDto> readCommitted(long since, int limit) {
+        long watermark;
+        synchronized (sequenceLock) {
+            initLastAssigned();
+            watermark = inFlight.isEmpty() ? lastAssigned : inFlight.first() - 1;
+        }
+        if (watermark <= since) {
+            return List.of();
+        }
+        return bookChangeRepository
+                .findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequenceAsc(since, watermark,
+                        Limit.of(limit))
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Outbox rows that exist before this node records anything were committed by a previous run.
+     * The oldest of them is read at the same point, before this run can roll back a sequence, so a gap
+     * below it was left by a purge (or by a rollback in a previous run, which at worst makes a consumer
+     * resync once).
+     */
+    private void initLastAssigned() {
+        if (lastAssigned < 0) {
+            lastAssigned = bookChangeRepository.findMaxSequence();
+            oldestRetained = Math.max(oldestRetained, bookChangeRepository.findMinSequence());
+        }
+    }
+
+    /**
+     * @param changes up to {@code batchSize + 1} changes; the extra one only signals that more are available
+     */
+    private static BookChangesDto toBatch(long since, List<BookChangeDto> changes, int batchSize) {
+        boolean hasMore = changes.size() > batchSize;
+        List<BookChangeDto> batch = hasMore ? changes.subList(0, batchSize) : changes;
+        long nextSince = batch.isEmpty() ? since : batch.get(batch.size() - 1).sequence();
+        return new BookChangesDto(batch, nextSince, hasMore);
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxBatchSize));
+    }
+
+    private BookChangeDto toDto(BookChange change) {
+        BookDto book = null;
+        if (change.getPayload() != null) {
+            try {
+                book = objectMapper.readValue(change.getPayload(), BookDto.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable book change " + change.getSequence(), e);
+            }
+        }
+        return new BookChangeDto(change.getSequence(), change.getChangeType(), change.getBookId(), book,
+                change.getChangedAt());
+    }
+
+    private String toJson(BookDto book) {
+        try {
+            return objectMapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize book " + book.id(), e);
+        }
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<BookChangesDto> future) {}
+}
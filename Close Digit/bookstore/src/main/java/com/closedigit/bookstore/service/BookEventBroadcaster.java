@@ -0,0 +1,209 @@
+package com.closedigit.bookstore.service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.closedigit.bookstore.dto.BookEventDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fans committed book changes out to Server-Sent Event subscribers.
+ * Subscribers are async servlet responses, so an idle connection holds a socket but no thread.
+ * Each subscriber has a bounded queue drained by a small dedicated writer pool; publishing and the
+ * heartbeat only enqueue, so neither the committing request thread nor the scheduler thread ever
+ * writes to a socket. A subscriber whose queue overflows, or whose current write has been blocked
+ * longer than the write timeout, is dropped and left to reconnect.
+ */
+@Service
+public class BookEventBroadcaster implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventBroadcaster.class);
+
+    private static final String EVENT_NAME = "book";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writeExecutor;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final long writeTimeoutNanos;
+    private final Counter dropped;
+
+    public BookEventBroadcaster(ObjectMapper objectMapper,
+            @Value("${catalog.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${catalog.events.writer-threads:4}") int writerThreads,
+            @Value("${catalog.events.queue-capacity:64}") int queueCapacity,
+            @Value("${catalog.events.write-timeout-ms:10000}") long writeTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.writeExecutor = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("book-events-"));
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+
+        Gauge.builder("catalog.events.subscribers", subscribers, Set::size)
+                .description("Open book event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("catalog.events.dropped")
+                .description("Book event streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a new event stream; clients reconnect after the timeout
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // flushes the response headers so the client sees the stream open straight away
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(BookEventDto.from(event));
+        } catch (JsonProcessingException e) {
+            logger.error("Cannot serialize book event for book {}", event.bookId(), e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON));
+        }
+        logger.debug("Queued book event for {} subscribers", subscribers.size());
+    }
+
+    /**
+     * Keeps idle connections open through proxies, and drops clients whose writes have stalled
+     */
+    @Scheduled(fixedDelayString = "${catalog.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                drop(subscriber, "write timed out");
+            } else {
+                subscriber.enqueue(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        writeExecutor.shutdownNow();
+    }
+
+    /**
+     * Emitter methods are synchronized with a send in progress, so a dropped subscriber's emitter is
+     * completed by its own writer once the current write returns, never by the dropping thread
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            logger.debug("Dropped book event subscriber: {}", reason);
+            subscriber.queue.clear();
+            subscriber.scheduleDrain();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** System.nanoTime() when the write in progress started, 0 when idle */
+        private volatile long writeStartedNanos;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                drop(this, "queue full");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        boolean isStalled(long now) {
+            long started = writeStartedNanos;
+            return started != 0 && now - started > writeTimeoutNanos;
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writeExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (subscribers.contains(this) && (event = queue.poll()) != null) {
+                    writeStartedNanos = System.nanoTime();
+                    emitter.send(event);
+                    writeStartedNanos = 0;
+                }
+                if (!subscribers.contains(this)) {
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the container reports the failure to the emitter; just stop writing to it
+                subscribers.remove(this);
+                return;
+            } finally {
+                writeStartedNanos = 0;
+                draining.set(false);
+            }
+            // an event queued after the last poll but before draining was reset
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
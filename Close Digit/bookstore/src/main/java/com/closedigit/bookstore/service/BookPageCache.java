@@ -0,0 +1,129 @@
+package com.closedigit.bookstore.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.closedigit.bookstore.dto.BookFilter;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.event.CatalogSnapshotInstalledEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * LRU cache of fully encoded book list responses, keyed by the normalized query ({@link PageKey}).
+ * Hits skip the query and JSON serialization entirely. Every committed book change clears it, and so
+ * does every catalog snapshot install, since pages served from a snapshot lag the change until then;
+ * a response rendered across either is not stored. Lookups inside a transaction bypass the cache,
+ * since that transaction may see its own uncommitted writes.
+ */
+@Service
+public class BookPageCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<PageKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public BookPageCache(
+            @Value("${catalog.response-cache.enabled:true}") boolean enabled,
+            @Value("${catalog.response-cache.max-entries:512}") int maxEntries,
+            @Value("${catalog.response-cache.max-bytes:16777216}") long maxBytes,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+
+        this.hits = Counter.builder("catalog.response-cache")
+                .description("Book list responses looked up in the encoded response cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("catalog.response-cache")
+                .description("Book list responses looked up in the encoded response cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("catalog.response-cache.bytes", this, BookPageCache::totalBytes)
+                .description("Bytes held by the encoded response cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached bytes for the key, or the result of the renderer (stored when no change committed meanwhile)
+     */
+    public byte[] get(PageKey key, Supplier<byte[]> renderer) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return renderer.get();
+        }
+
+        long renderGeneration;
+        synchronized (this) {
+            byte[] cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            renderGeneration = generation;
+        }
+
+        misses.increment();
+        byte[] rendered = renderer.get();
+        put(key, rendered, renderGeneration);
+        return rendered;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        invalidateAll();
+    }
+
+    @EventListener
+    public synchronized void onSnapshotInstalled(CatalogSnapshotInstalledEvent event) {
+        invalidateAll();
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private synchronized void put(PageKey key, byte[] body, long renderGeneration) {
+        if (renderGeneration != generation || body.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, body);
+        totalBytes += body.length - (previous == null ? 0 : previous.length);
+
+        Iterator<Map.Entry<PageKey, byte[]>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Everything that shapes a book list response; compared by value, component by component
+     *
+     * @param columnar whether the body is encoded in the columnar media type rather than plain JSON
+     */
+    public record PageKey(int page, int size, Sort sort, BookFilter filter, boolean facets, boolean columnar) {}
+}
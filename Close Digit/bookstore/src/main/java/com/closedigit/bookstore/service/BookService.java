@@ -1,18 +1,48 @@
 package com.closedigit.bookstore.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.closedigit.bookstore.catalog.CatalogIndex;
+import com.closedigit.bookstore.catalog.CatalogSnapshotManager;
+import com.closedigit.bookstore.dto.BookBatchDto;
 import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.dto.BookFacetsDto;
+import com.closedigit.bookstore.dto.BookFilter;
+import com.closedigit.bookstore.dto.FacetCountDto;
 import com.closedigit.bookstore.entity.Book;
+import com.closedigit.bookstore.event.BookChangedEvent;
 import com.closedigit.bookstore.exception.BookNotFoundException;
 import com.closedigit.bookstore.exception.DuplicateIsbnException;
 import com.closedigit.bookstore.mapper.BookMapper;
 import com.closedigit.bookstore.repository.BookRepository;
+import com.closedigit.bookstore.repository.BookSearchRepository.FacetRow;
+import com.closedigit.bookstore.repository.BookSearchRepository.PriceBucket;
+import com.closedigit.bookstore.repository.BookSpecifications;
 import com.closedigit.bookstore.validator.IsbnValidator;
 
 /**
@@ -28,26 +58,161 @@ public class BookService {
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final IsbnValidator isbnValidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<CatalogSnapshotManager> catalogSnapshot;
+    private final SingleFlight<Pageable, Page<BookDto>> pageReads = new SingleFlight<>();
+    private final SingleFlight<Long, BookDto> bookReads = new SingleFlight<>();
+    private final SingleFlight<List<Long>, Map<Long, BookDto>> batchReads = new SingleFlight<>();
 
-    public BookService(BookRepository bookRepository, BookMapper bookMapper, IsbnValidator isbnValidator) {
+    public BookService(BookRepository bookRepository, BookMapper bookMapper, IsbnValidator isbnValidator,
+            ApplicationEventPublisher eventPublisher, ObjectProvider<CatalogSnapshotManager> catalogSnapshot) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
         this.isbnValidator = isbnValidator;
+        this.eventPublisher = eventPublisher;
+        this.catalogSnapshot = catalogSnapshot;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the off-heap catalog snapshot when it is enabled; otherwise concurrent requests for
+     * the same page share one query. No transaction is started here, so callers waiting on another
+     * request's query do not hold a connection; callers already inside a transaction query on their own
+     * so they keep seeing their own uncommitted writes.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<BookDto> getAllBooks(Pageable pageable) {
         logger.debug("Fetching all books with pagination and sorting: {}", pageable);
-        return bookRepository.findAll(pageable)
-                .map(bookMapper::toDto);
+        CatalogSnapshotManager snapshot = catalogSnapshot.getIfAvailable();
+        if (snapshot != null) {
+            Optional<Page<BookDto>> page = snapshot.findPage(pageable);
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return bookRepository.findAllProjectedBy(pageable);
+        }
+        Pageable key = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        return pageReads.execute(key, () -> bookRepository.findAllProjectedBy(key));
+    }
+
+    /**
+     * Page of books matching the filter, selected straight into DTOs
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDto> searchBooks(BookFilter filter, Pageable pageable) {
+        logger.debug("Searching books with filter: {} and pagination: {}", filter, pageable);
+        validateFilter(filter);
+        return bookRepository.findAllProjected(BookSpecifications.matching(filter), pageable);
     }
 
+    /**
+     * Per-genre and per-price-range counts for the books matching the filter
+     */
     @Transactional(readOnly = true)
+    public BookFacetsDto getFacets(BookFilter filter) {
+        logger.debug("Computing facets for filter: {}", filter);
+        validateFilter(filter);
+
+        PriceBucket[] buckets = PriceBucket.values();
+        long[] bucketCounts = new long[buckets.length];
+        Map<String, Long> genreCounts = new HashMap<>();
+        for (FacetRow row : bookRepository.countFacets(BookSpecifications.matching(filter))) {
+            bucketCounts[row.priceBucket().ordinal()] += row.count();
+            genreCounts.merge(row.genre(), row.count(), Long::sum);
+        }
+
+        List<FacetCountDto> genres = new ArrayList<>(genreCounts.size());
+        genreCounts.forEach((genre, count) -> genres.add(new FacetCountDto(genre, count)));
+        genres.sort(Comparator.comparingLong(FacetCountDto::count).reversed()
+                .thenComparing(FacetCountDto::value, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<FacetCountDto> priceRanges = new ArrayList<>(buckets.length);
+        for (PriceBucket bucket : buckets) {
+            priceRanges.add(new FacetCountDto(bucket.getLabel(), bucketCounts[bucket.ordinal()]));
+        }
+
+        return new BookFacetsDto(genres, priceRanges);
+    }
+
+    /**
+     * Push every book to the consumer in sort order, one keyset-paged chunk at a time.
+     * Each chunk is a short query of its own, so no transaction, cursor or connection is held while
+     * the consumer writes; a book changed mid-stream may appear in its old or new position.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAllBooks(Sort sort, int chunkSize, Consumer<List<BookDto>> consumer) {
+        logger.debug("Streaming all books with sorting: {}", sort);
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Book> chunk;
+        do {
+            chunk = bookRepository.findBy(position, sort, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            consumer.accept(chunk.stream().map(bookMapper::toDto).toList());
+            position = chunk.positionAt(chunk.size() - 1);
+        } while (chunk.hasNext());
+    }
+
+    /**
+     * Answered from the catalog index when the snapshot is current; otherwise concurrent requests
+     * for the same book share one query
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BookDto getBookById(Long id) {
         logger.debug("Fetching book with ID: {}", id);
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
-        return bookMapper.toDto(book);
+        Optional<CatalogIndex> index = currentCatalogIndex();
+        if (index.isPresent()) {
+            BookDto book = index.get().findById(id);
+            if (book == null) {
+                throw new BookNotFoundException("Book not found with ID: " + id);
+            }
+            return book;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadBook(id);
+        }
+        return bookReads.execute(id, () -> loadBook(id));
+    }
+
+    /**
+     * Books for the given ids in request order, plus the ids that match no book. Uses the catalog
+     * index like single reads; otherwise one IN query, shared by concurrent requests for the same ids
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public BookBatchDto getBooksByIds(List<Long> ids) {
+        logger.debug("Fetching {} books by ID", ids.size());
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+
+        Map<Long, BookDto> found;
+        Optional<CatalogIndex> index = currentCatalogIndex();
+        if (index.isPresent()) {
+            found = new HashMap<>();
+            for (Long id : distinctIds) {
+                BookDto book = index.get().findById(id);
+                if (book != null) {
+                    found.put(id, book);
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            found = loadBooks(distinctIds);
+        } else {
+            found = batchReads.execute(distinctIds, () -> loadBooks(distinctIds));
+        }
+
+        List<BookDto> books = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            BookDto book = found.get(id);
+            if (book == null) {
+                missingIds.add(id);
+            } else {
+                books.add(book);
+            }
+        }
+        return new BookBatchDto(books, missingIds);
     }
 
     public BookDto createBook(BookDto bookDto) {
@@ -57,15 +222,17 @@ public class BookService {
             throw new IllegalArgumentException("Invalid ISBN format: " + bookDto.isbn());
         }
 
-        if (bookRepository.existsByIsbn(bookDto.isbn())) {
+        if (isbnExists(bookDto.isbn())) {
             throw new DuplicateIsbnException("Book with ISBN " + bookDto.isbn() + " already exists");
         }
 
         Book book = bookMapper.toEntity(bookDto);
         Book savedBook = bookRepository.save(book);
+        BookDto createdBook = bookMapper.toDto(savedBook);
+        eventPublisher.publishEvent(BookChangedEvent.created(createdBook));
 
         logger.info("Book created successfully with ID: {}", savedBook.getId());
-        return bookMapper.toDto(savedBook);
+        return createdBook;
     }
 
     public BookDto updateBook(Long id, BookDto bookDto) {
@@ -79,11 +246,13 @@ public class BookService {
                 throw new IllegalArgumentException("Invalid ISBN format: " + bookDto.isbn());
             }
 
-            if (bookRepository.existsByIsbn(bookDto.isbn())) {
+            if (isbnExists(bookDto.isbn())) {
                 throw new DuplicateIsbnException("Book with ISBN " + bookDto.isbn() + " already exists");
             }
         }
 
+        BookDto previousBook = bookMapper.toDto(existingBook);
+
         existingBook.setTitle(bookDto.title());
         existingBook.setAuthor(bookDto.author());
         existingBook.setPublishedDate(bookDto.publishedDate());
@@ -92,19 +261,67 @@ public class BookService {
         existingBook.setIsbn(bookDto.isbn());
 
         Book updatedBook = bookRepository.save(existingBook);
+        BookDto updatedBookDto = bookMapper.toDto(updatedBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previousBook, updatedBookDto));
 
         logger.info("Book updated successfully with ID: {}", updatedBook.getId());
-        return bookMapper.toDto(updatedBook);
+        return updatedBookDto;
     }
 
     public void deleteBook(Long id) {
         logger.debug("Deleting book with ID: {}", id);
 
-        if (!bookRepository.existsById(id)) {
-            throw new BookNotFoundException("Book not found with ID: " + id);
-        }
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
 
-        bookRepository.deleteById(id);
+        bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(bookMapper.toDto(book)));
         logger.info("Book deleted successfully with ID: {}", id);
     }
+
+    /**
+     * Reads starting after a commit must not join a query that may predate it
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        pageReads.forgetAll();
+        bookReads.forget(event.bookId());
+        batchReads.forgetAll();
+    }
+
+    private BookDto loadBook(Long id) {
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+        return bookMapper.toDto(book);
+    }
+
+    private Map<Long, BookDto> loadBooks(List<Long> ids) {
+        Map<Long, BookDto> books = new HashMap<>();
+        for (BookDto book : bookRepository.findAllProjectedByIdIn(ids)) {
+            books.put(book.id(), book);
+        }
+        return books;
+    }
+
+    private void validateFilter(BookFilter filter) {
+        if (filter.priceMin() != null && filter.priceMax() != null
+                && filter.priceMin().compareTo(filter.priceMax()) > 0) {
+            throw new IllegalArgumentException("priceMin must not be greater than priceMax");
+        }
+        if (filter.publishedFrom() != null && filter.publishedTo() != null
+                && filter.publishedFrom().isAfter(filter.publishedTo())) {
+            throw new IllegalArgumentException("publishedFrom must not be after publishedTo");
+        }
+    }
+
+    private boolean isbnExists(String isbn) {
+        return currentCatalogIndex()
+                .map(index -> index.containsIsbn(isbn))
+                .orElseGet(() -> bookRepository.existsByIsbn(isbn));
+    }
+
+    private Optional<CatalogIndex> currentCatalogIndex() {
+        CatalogSnapshotManager snapshot = catalogSnapshot.getIfAvailable();
+        return snapshot == null ? Optional.empty() : snapshot.currentIndex();
+    }
 }
\ No newline at end of file
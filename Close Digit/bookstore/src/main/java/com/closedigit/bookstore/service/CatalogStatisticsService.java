@@ -0,0 +1,214 @@
+package com.closedigit.bookstore.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.dto.BookStatsRow;
+import com.closedigit.bookstore.dto.CatalogStatsDto;
+import com.closedigit.bookstore.dto.GroupStatsDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.repository.BookRepository;
+
+/**
+ * Keeps per-genre and per-author catalog statistics in memory.
+ * Aggregates are adjusted incrementally from committed book changes, so reading them costs
+ * O(#groups) and never touches the books table. A periodic reconcile rebuilds them from grouped
+ * queries to correct any drift (e.g. rows changed outside BookService).
+ * Changes are counted as pending from publication until their transaction completes: while one is
+ * pending, a rebuild cannot tell whether its rows are already in the query results, so it is discarded.
+ */
+@Service
+public class CatalogStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStatisticsService.class);
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private Map<String, GroupAccumulator> genres = new HashMap<>();
+    private Map<String, GroupAccumulator> authors = new HashMap<>();
+    private long totalBooks;
+    private long generation;
+    private int pendingChanges;
+    private LocalDateTime reconciledAt;
+    private CatalogStatsDto snapshot;
+
+    public CatalogStatisticsService(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Current statistics; rebuilt from the in-memory aggregates only after a change
+     */
+    public synchronized CatalogStatsDto getStatistics() {
+        if (snapshot == null) {
+            snapshot = new CatalogStatsDto(totalBooks, toDtos(genres), toDtos(authors), reconciledAt);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Mark the change pending inside the publishing transaction, until that transaction completes
+     */
+    @EventListener
+    public void onBookChangePublished(BookChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronized (this) {
+            pendingChanges++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (CatalogStatisticsService.this) {
+                    pendingChanges--;
+                }
+            }
+        });
+    }
+
+    /**
+     * Apply a book change once its transaction has committed
+     */
+    @TransactionalEventListener
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+        generation++;
+        snapshot = null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild all aggregates from the database.
+     * Both grouped queries read one snapshot. If a change was applied while they ran, or one is still
+     * pending, the rebuilt state may be stale or count that change twice, so the incremental state is
+     * kept and the next run tries again.
+     */
+    @Scheduled(fixedDelayString = "${catalog.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${catalog.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+
+        List<Map<String, GroupAccumulator>> rebuilt = transactionTemplate.execute(status -> List.of(
+                rebuild(bookRepository.aggregateByGenreAndPublishedDate()),
+                rebuild(bookRepository.aggregateByAuthorAndPublishedDate())));
+        Map<String, GroupAccumulator> rebuiltGenres = rebuilt.get(0);
+        Map<String, GroupAccumulator> rebuiltAuthors = rebuilt.get(1);
+        long rebuiltTotal = rebuiltGenres.values().stream().mapToLong(group -> group.count).sum();
+
+        synchronized (this) {
+            if (generation != startGeneration || pendingChanges > 0) {
+                logger.debug("Catalog changed during statistics reconcile, keeping incremental state");
+                return;
+            }
+            if (rebuiltTotal != totalBooks) {
+                logger.info("Catalog statistics reconciled: {} books (was {})", rebuiltTotal, totalBooks);
+            }
+            genres = rebuiltGenres;
+            authors = rebuiltAuthors;
+            totalBooks = rebuiltTotal;
+            reconciledAt = LocalDateTime.now();
+            snapshot = null;
+        }
+    }
+
+    private void apply(BookDto book, int sign) {
+        totalBooks += sign;
+        adjust(genres, book.genre(), book, sign);
+        adjust(authors, book.author(), book, sign);
+    }
+
+    private static void adjust(Map<String, GroupAccumulator> groups, String key, BookDto book, int sign) {
+        GroupAccumulator group = groups.computeIfAbsent(key, k -> new GroupAccumulator());
+        group.add(book.publishedDate(), book.price(), sign);
+        if (group.count <= 0) {
+            groups.remove(key);
+        }
+    }
+
+    private static Map<String, GroupAccumulator> rebuild(List<BookStatsRow> rows) {
+        Map<String, GroupAccumulator> groups = new HashMap<>();
+        for (BookStatsRow row : rows) {
+            groups.computeIfAbsent(row.group(), k -> new GroupAccumulator())
+                    .add(row.publishedDate(), row.priceSum(), row.count());
+        }
+        return groups;
+    }
+
+    private static List<GroupStatsDto> toDtos(Map<String, GroupAccumulator> groups) {
+        List<GroupStatsDto> dtos = new ArrayList<>(groups.size());
+        groups.forEach((name, group) -> dtos.add(new GroupStatsDto(
+                name,
+                group.count,
+                group.priceSum.divide(BigDecimal.valueOf(group.count), 2, RoundingMode.HALF_UP),
+                group.earliest(),
+                group.latest())));
+        dtos.sort(Comparator.comparing(GroupStatsDto::name, Comparator.nullsLast(Comparator.naturalOrder())));
+        return dtos;
+    }
+
+    /**
+     * Count, price sum and a published-date multiset, so min/max survive deletes
+     */
+    private static final class GroupAccumulator {
+
+        private long count;
+        private BigDecimal priceSum = BigDecimal.ZERO;
+        private final TreeMap<LocalDate, Long> publishedDates = new TreeMap<>();
+
+        private void add(LocalDate publishedDate, BigDecimal price, long books) {
+            count += books;
+            priceSum = books > 0 ? priceSum.add(price) : priceSum.subtract(price);
+            publishedDates.compute(publishedDate, (date, current) -> {
+                long updated = (current == null ? 0 : current) + books;
+                return updated > 0 ? updated : null;
+            });
+        }
+
+        private LocalDate earliest() {
+            return publishedDates.isEmpty() ? null : publishedDates.firstKey();
+        }
+
+        private LocalDate latest() {
+            return publishedDates.isEmpty() ? null : publishedDates.lastKey();
+        }
+    }
+}
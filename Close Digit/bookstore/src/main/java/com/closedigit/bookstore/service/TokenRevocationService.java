@@ -0,0 +1,227 @@
+package com.closedigit.bookstore.service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.closedigit.bookstore.entity.ConsumedRefreshToken;
+import com.closedigit.bookstore.entity.RevokedToken;
+import com.closedigit.bookstore.repository.ConsumedRefreshTokenRepository;
+import com.closedigit.bookstore.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revoked JWTs, checked in constant time on every authenticated request.
+ *
+ * Two hash maps hold the revocations in memory: single tokens by {@code jti}, and per-user cutoffs
+ * that revoke everything a user was issued before a point in time (logout everywhere, role change,
+ * deletion). Each entry is dropped once the tokens it covers have expired. The per-token map is
+ * capped; when it is full, a revocation widens to the user's cutoff instead of growing the map. This
+ * holds for revocations made here as well as for those loaded at startup or polled from other nodes.
+ * Revocations are also written to {@code revoked_tokens}, reloaded on startup and polled for, so
+ * revocations made on another node sharing the database apply here within the poll interval. The
+ * check itself runs outside any transaction and never touches the database.
+ * Exchanged refresh tokens are not revocations: they are claimed in {@code consumed_refresh_tokens}
+ * only, so routine refreshes never count against the cap.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /** Re-read behind the previous poll, for rows whose transaction committed after it ran */
+    private static final long POLL_OVERLAP_MILLIS = 30_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ConsumedRefreshTokenRepository consumedRefreshTokenRepository;
+    private final long tokenLifetimeMillis;
+    private final int maxRevokedTokens;
+
+    /** jti to expiry (epoch millis) */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+    private volatile Instant lastPolledAt;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            ConsumedRefreshTokenRepository consumedRefreshTokenRepository,
+            @Value("${jwt.refresh-expiration:604800000}") long tokenLifetimeMillis,
+            @Value("${auth.revocation.max-tokens:100000}") int maxRevokedTokens,
+            MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.consumedRefreshTokenRepository = consumedRefreshTokenRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.maxRevokedTokens = maxRevokedTokens;
+
+        Gauge.builder("auth.revocations", revokedTokens, Map::size)
+                .description("Token revocations held in memory")
+                .tag("scope", "token")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocations", userCutoffs, Map::size)
+                .description("Token revocations held in memory")
+                .tag("scope", "user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loaded before the web server starts accepting requests
+     */
+    @PostConstruct
+    public void loadRevocations() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(revocation -> apply(revocation, now));
+        lastPolledAt = now;
+        logger.info("Loaded {} token and {} user revocations", revokedTokens.size(), userCutoffs.size());
+    }
+
+    /**
+     * Pick up revocations written by other nodes since the previous poll
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval-ms:5000}",
+            initialDelayString = "${auth.revocation.poll-interval-ms:5000}")
+    public void pollRevocations() {
+        Instant now = Instant.now();
+        Instant since = lastPolledAt == null ? Instant.EPOCH : lastPolledAt.minusMillis(POLL_OVERLAP_MILLIS);
+        List<RevokedToken> revocations = revokedTokenRepository.findByCreatedAtAfterAndExpiresAtAfter(since, now);
+        if (!revocations.isEmpty() && revokedTokens.size() >= maxRevokedTokens) {
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now.toEpochMilli());
+        }
+        revocations.forEach(revocation -> apply(revocation, now));
+        lastPolledAt = now;
+    }
+
+    /**
+     * A user's cutoff covers every token issued at or before the revoking instant
+     */
+    public boolean isRevoked(String tokenId, String username, Date issuedAt) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        UserCutoff cutoff = userCutoffs.get(username);
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff.revokedAtMillis());
+    }
+
+    /**
+     * Issue time for a new token of the user. {@code iat} only has whole seconds, so straight after a
+     * cutoff this is the first whole second strictly after it, at most one second ahead of the clock;
+     * a login right after a role change is then not caught by the cutoff it follows.
+     */
+    public Date issueTimeFor(String username) {
+        long now = System.currentTimeMillis();
+        UserCutoff cutoff = userCutoffs.get(username);
+        if (cutoff == null || now / 1000 * 1000 > cutoff.revokedAtMillis()) {
+            return new Date(now);
+        }
+        return new Date((cutoff.revokedAtMillis() / 1000 + 1) * 1000);
+    }
+
+    /**
+     * Revoke one token until it expires
+     */
+    @Transactional
+    public void revokeToken(String tokenId, String username, Date expiresAt) {
+        if (tokenId == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (revokedTokens.size() >= maxRevokedTokens) {
+            purgeExpired();
+        }
+        if (revokedTokens.size() >= maxRevokedTokens) {
+            logger.warn("Token revocation list is full ({} entries); revoking all tokens of {}",
+                    maxRevokedTokens, username);
+            revokeAllTokens(username);
+            return;
+        }
+        if (revokedTokens.putIfAbsent(tokenId, expiresAt.getTime()) == null) {
+            revokedTokenRepository.save(RevokedToken.token(tokenId, username, expiresAt.toInstant()));
+            logger.info("Revoked token {} of user {}", tokenId, username);
+        }
+    }
+
+    /**
+     * Consume a single-use token, atomically: of concurrent claims of the same token, on this node or on
+     * another one sharing the database, exactly one returns true. The unique {@code token_id} column of
+     * {@code consumed_refresh_tokens} decides; nothing is held in memory.
+     */
+    public boolean claimToken(String tokenId, String username, Date expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return false;
+        }
+        try {
+            consumedRefreshTokenRepository.saveAndFlush(
+                    new ConsumedRefreshToken(tokenId, username, expiresAt.toInstant()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Token {} was already claimed on another node", tokenId);
+            return false;
+        }
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     */
+    @Transactional
+    public void revokeAllTokens(String username) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(tokenLifetimeMillis);
+        applyCutoff(username, now.toEpochMilli(), expiresAt.toEpochMilli());
+        revokedTokenRepository.save(RevokedToken.allTokensOf(username, now, expiresAt));
+        logger.info("Revoked all tokens of user {}", username);
+    }
+
+    /**
+     * Drop revocations and consumed refresh tokens whose tokens have expired, in memory and in the database
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        userCutoffs.values().removeIf(cutoff -> cutoff.expiresAt() <= now);
+        int purged = revokedTokenRepository.deleteExpiredBefore(Instant.ofEpochMilli(now))
+                + consumedRefreshTokenRepository.deleteExpiredBefore(Instant.ofEpochMilli(now));
+        if (purged > 0) {
+            logger.debug("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private void apply(RevokedToken revocation, Instant now) {
+        long expiresAt = revocation.getExpiresAt().toEpochMilli();
+        if (revocation.getTokenId() != null) {
+            if (revokedTokens.containsKey(revocation.getTokenId())) {
+                return;
+            }
+            if (revokedTokens.size() >= maxRevokedTokens) {
+                // the token was issued before it was revoked, so a cutoff at that instant covers it
+                Instant revokedAt = revocation.getCreatedAt() == null ? now : revocation.getCreatedAt();
+                applyCutoff(revocation.getUsername(), revokedAt.toEpochMilli(), expiresAt);
+                return;
+            }
+            revokedTokens.putIfAbsent(revocation.getTokenId(), expiresAt);
+        } else {
+            applyCutoff(revocation.getUsername(), revocation.getIssuedBefore().toEpochMilli(), expiresAt);
+        }
+    }
+
+    private void applyCutoff(String username, long revokedAtMillis, long expiresAt) {
+        userCutoffs.merge(username, new UserCutoff(revokedAtMillis, expiresAt),
+                (current, added) -> new UserCutoff(
+                        Math.max(current.revokedAtMillis(), added.revokedAtMillis()),
+                        Math.max(current.expiresAt(), added.expiresAt())));
+    }
+
+    private record UserCutoff(long revokedAtMillis, long expiresAt) {}
+}
@@ -1,11 +1,17 @@
 package com.closedigit.bookstore.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,12 +20,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.closedigit.bookstore.dto.RegisterRequest;
 import com.closedigit.bookstore.dto.UserDto;
+import com.closedigit.bookstore.dto.UserFilter;
+import com.closedigit.bookstore.dto.UserSliceDto;
 import com.closedigit.bookstore.entity.Role;
 import com.closedigit.bookstore.entity.User;
 import com.closedigit.bookstore.exception.UserAlreadyExistsException;
 import com.closedigit.bookstore.exception.UserNotFoundException;
 import com.closedigit.bookstore.mapper.UserMapper;
 import com.closedigit.bookstore.repository.UserRepository;
+import com.closedigit.bookstore.repository.UserSpecifications;
 
 /**
  * Service class for User operations
@@ -27,18 +36,21 @@ import com.closedigit.bookstore.repository.UserRepository;
  */
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
     
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+            TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
     }
     
     @Override
@@ -49,7 +61,28 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
+    /**
+     * Store a password rehashed under the current hashing policy; called after a successful login
+     * when the stored hash uses an older algorithm or a lower cost
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newEncodedPassword);
+        logger.info("Password hash upgraded for user: {}", user.getUsername());
+        return userRepository.save(user);
+    }
+
     public UserDto registerUser(RegisterRequest registerRequest) {
+        return userMapper.toDto(createUser(registerRequest));
+    }
+
+    /**
+     * Persist a new USER account and return the saved entity, so callers can issue a token
+     * without re-authenticating or re-reading the user
+     */
+    public User createUser(RegisterRequest registerRequest) {
         logger.debug("Registering new user: {}", registerRequest.username());
         
         // Check if username already exists
@@ -73,7 +106,7 @@ public class UserService implements UserDetailsService {
         User savedUser = userRepository.save(user);
         
         logger.info("User registered successfully: {}", savedUser.getUsername());
-        return userMapper.toDto(savedUser);
+        return savedUser;
     }
     
     @Transactional(readOnly = true)
@@ -92,24 +125,45 @@ public class UserService implements UserDetailsService {
         return userMapper.toDto(user);
     }
 
+    /**
+     * Page of users matching the filter, selected straight into DTOs
+     */
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers() {
-        logger.debug("Fetching all users");
-        return userRepository.findAll()
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    public Page<UserDto> searchUsers(UserFilter filter, Pageable pageable) {
+        logger.debug("Searching users with filter: {} and pageable: {}", filter, pageable);
+        return userRepository.findAllProjected(UserSpecifications.matching(filter), pageable);
     }
-    
+
+    /**
+     * Keyset page: up to {@code limit} matching users with ids after {@code afterId}. Costs the same
+     * at any depth, unlike an offset page, and needs no count query.
+     */
     @Transactional(readOnly = true)
-    public List<UserDto> getUsersByRole(Role role) {
-        logger.debug("Fetching users with role: {}", role);
-        return userRepository.findByRole(role)
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    public UserSliceDto getUsersAfter(UserFilter filter, Long afterId, int limit) {
+        logger.debug("Getting users after ID: {} with filter: {}, limit: {}", afterId, filter, limit);
+
+        Specification<User> specification = UserSpecifications.matching(filter)
+                .and(UserSpecifications.idAfter(afterId));
+        // one extra row tells whether another slice follows
+        List<UserDto> users = userRepository.findProjectedInIdOrder(specification, limit + 1);
+        if (users.size() <= limit) {
+            return new UserSliceDto(users, null);
+        }
+        List<UserDto> slice = users.subList(0, limit);
+        return new UserSliceDto(List.copyOf(slice), slice.get(limit - 1).id());
     }
-    
+
+    /**
+     * Push every matching user to the consumer in sort order without materialising the result
+     */
+    @Transactional(readOnly = true)
+    public void streamUsers(UserFilter filter, Sort sort, Consumer<UserDto> consumer) {
+        logger.debug("Streaming users with filter: {} and sorting: {}", filter, sort);
+        try (Stream<UserDto> users = userRepository.streamProjected(UserSpecifications.matching(filter), sort)) {
+            users.forEach(consumer);
+        }
+    }
+
     public UserDto updateUserRole(Long userId, Role newRole) {
         logger.debug("Updating role for user ID: {} to {}", userId, newRole);
         
@@ -118,6 +172,8 @@ public class UserService implements UserDetailsService {
         
         user.setRole(newRole);
         User updatedUser = userRepository.save(user);
+        // tokens carry the old role claim
+        tokenRevocationService.revokeAllTokens(user.getUsername());
         
         logger.info("User role updated successfully for user ID: {}", userId);
         return userMapper.toDto(updatedUser);
@@ -126,14 +182,23 @@ public class UserService implements UserDetailsService {
     public void deleteUser(Long userId) {
         logger.debug("Deleting user with ID: {}", userId);
         
-        if (!userRepository.existsById(userId)) {
-            throw new UserNotFoundException("User not found with ID: " + userId);
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         
-        userRepository.deleteById(userId);
+        userRepository.delete(user);
+        tokenRevocationService.revokeAllTokens(user.getUsername());
         logger.info("User deleted successfully with ID: {}", userId);
     }
     
+    /**
+     * Log the user out everywhere
+     */
+    public void revokeTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        tokenRevocationService.revokeAllTokens(user.getUsername());
+    }
+    
     @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
@@ -66,7 +66,7 @@ class BookstoreApplicationTests {
                 AuthResponse authResponse = objectMapper.readValue(registerResponse, AuthResponse.class);
                 String userToken = authResponse.token();
 
-                AuthRequest loginRequest = new AuthRequest("admin", "admin123");
+                AuthRequest loginRequest = new AuthRequest("admin", "admin");
 
                 MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -171,7 +171,7 @@ class BookstoreApplicationTests {
         @Test
         void bookOperations_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
                 mockMvc.perform(get("/api/books"))
-                                .andExpect(status().isForbidden()); 
+                                .andExpect(status().isUnauthorized()); 
 
                 BookDto newBook = BookDto.createRequest(
                                 "Unauthorized Book",
@@ -184,12 +184,12 @@ class BookstoreApplicationTests {
                 mockMvc.perform(post("/api/books")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(newBook)))
-                                .andExpect(status().isForbidden()); 
+                                .andExpect(status().isUnauthorized()); 
         }
 
         @Test
         void bookFiltering_ByGenreAndYear_ShouldWork() throws Exception {
-                AuthRequest loginRequest = new AuthRequest("admin", "admin123");
+                AuthRequest loginRequest = new AuthRequest("admin", "admin");
                 MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(loginRequest)))
@@ -252,7 +252,7 @@ class BookstoreApplicationTests {
 
         @Test
         void bookValidation_WithInvalidData_ShouldReturnBadRequest() throws Exception {
-                AuthRequest loginRequest = new AuthRequest("admin", "admin123");
+                AuthRequest loginRequest = new AuthRequest("admin", "admin");
                 MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(loginRequest)))
@@ -0,0 +1,66 @@
+package com.closedigit.bookstore.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.closedigit.bookstore.dto.BookDto;
+
+/**
+ * Unit tests for CatalogSnapshot
+ */
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<BookDto> books = List.of(
+            new BookDto(1L, "Zebra Tales", "Ann", LocalDate.of(2001, 1, 1), "Fiction", new BigDecimal("15.50"), "9780000000001"),
+            new BookDto(2L, "Álgebra", "Bob", LocalDate.of(1999, 6, 30), null, new BigDecimal("9.99"), "9780000000002"),
+            new BookDto(3L, "Middle", "Cid", LocalDate.of(2020, 2, 29), "Science", new BigDecimal("120.00"), "9780000000003"));
+
+    @Test
+    void read_ShouldDecodeRowsInPresortedOrder() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(books, directory);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of(2L, 1L, 3L), ids(snapshot.read("price", true, 0, 10)));
+        assertEquals(List.of(3L, 1L, 2L), ids(snapshot.read("publishedDate", false, 0, 10)));
+        assertEquals(List.of(2L, 1L), ids(snapshot.read("genre", true, 0, 2)));
+        assertEquals(List.of(1L), ids(snapshot.read("title", false, 1, 1)));
+        assertTrue(snapshot.read("id", true, 5, 10).isEmpty());
+    }
+
+    @Test
+    void row_ShouldRoundTripAllColumns() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(books, directory);
+
+        assertEquals(books.get(0), snapshot.row(0));
+        assertEquals(books.get(1), snapshot.row(1));
+        assertNull(snapshot.row(1).genre());
+    }
+
+    @Test
+    void catalogIndex_ShouldLookUpByIdAndPackedIsbn() throws Exception {
+        CatalogIndex index = CatalogIndex.build(CatalogSnapshot.build(books, directory));
+
+        assertEquals(books.get(2), index.findById(3L));
+        assertNull(index.findById(42L));
+        assertTrue(index.containsIsbn("9780000000002"));
+        assertFalse(index.containsIsbn("9780000000009"));
+        assertFalse(index.containsIsbn("0000000002"));
+    }
+
+    private static List<Long> ids(List<BookDto> page) {
+        return page.stream().map(BookDto::id).toList();
+    }
+}
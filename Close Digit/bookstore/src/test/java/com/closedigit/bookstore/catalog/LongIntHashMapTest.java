@@ -0,0 +1,49 @@
+package com.closedigit.bookstore.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LongIntHashMap
+ */
+class LongIntHashMapTest {
+
+    @Test
+    void put_ShouldStoreAndReplaceValuesAcrossCollisions() {
+        LongIntHashMap map = new LongIntHashMap(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 1024L, i);
+        }
+        map.put(0L, 42);
+
+        assertEquals(10_000, map.size());
+        assertEquals(42, map.get(0L));
+        assertEquals(9_999, map.get(9_999 * 1024L));
+        assertEquals(LongIntHashMap.MISSING, map.get(1L));
+        assertEquals(LongIntHashMap.MISSING, map.get(-1024L));
+    }
+
+    @Test
+    void put_WhenSizedTooSmall_ShouldRefuseToOverfill() {
+        LongIntHashMap map = new LongIntHashMap(3);
+        for (int i = 0; i < 3; i++) {
+            map.put(i, i);
+        }
+
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 3; i < 16; i++) {
+                map.put(i, i);
+            }
+        });
+    }
+
+    @Test
+    void packIsbn_ShouldKeepTenAndThirteenDigitFormsApart() {
+        assertEquals(-1, CatalogIndex.packIsbn("978-0134685991"));
+        assertEquals(-1, CatalogIndex.packIsbn("123456789X"));
+        assertEquals(134685991L, CatalogIndex.packIsbn("0134685991"));
+        assertEquals(134685991L | (1L << 62), CatalogIndex.packIsbn("0000134685991"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.closedigit.bookstore.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for access to the actuator endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void health_WithoutToken_ShouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void metrics_ShouldRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/metrics")
+                .header("Authorization", "Bearer " + login("user", "user")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/metrics/auth.password.hash")
+                .header("Authorization", "Bearer " + login("admin", "admin")))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class).token();
+    }
+}
@@ -0,0 +1,171 @@
+package com.closedigit.bookstore.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.BookChangeDto;
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.repository.BookChangeRepository;
+import com.closedigit.bookstore.service.BookChangeFeedService;
+import com.closedigit.bookstore.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for the book change feed.
+ * Not transactional: the feed only shows changes once their transaction has completed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookChangeFeedService bookChangeFeedService;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("admin", "admin"))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        adminToken = objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class)
+                .token();
+    }
+
+    @Test
+    void getChanges_AfterCreateAndDelete_ShouldReturnBothInOrder() throws Exception {
+        long cursor = bookChangeRepository.findMaxSequence();
+        BookDto newBook = BookDto.createRequest("Feed Book", "Feed Author", LocalDate.of(2024, 3, 1),
+                "Testing", new BigDecimal("12.50"), "9780000000123");
+        MvcResult created = mockMvc.perform(post("/api/books")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newBook)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long bookId = objectMapper.readValue(created.getResponse().getContentAsString(), BookDto.class).id();
+
+        mockMvc.perform(delete("/api/books/" + bookId)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        MvcResult feed = mockMvc.perform(get("/api/books/changes")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("since", String.valueOf(cursor)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.changes[0].book.title").value("Feed Book"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[1].bookId").value(bookId))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getChanges_WhenLongPollTimesOut_ShouldReturnEmptyBatchWithSameCursor() throws Exception {
+        MvcResult feed = mockMvc.perform(get("/api/books/changes")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("since", "1000000")
+                .param("waitMs", "50"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").isEmpty())
+                .andExpect(jsonPath("$.nextSince").value(1000000));
+    }
+
+    @Test
+    void getChangesSince_WhileEarlierChangeIsUncommitted_ShouldStopBeforeIt() throws Exception {
+        long cursor = bookChangeRepository.findMaxSequence();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        CompletableFuture<BookDto> slow = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            BookDto book = bookService.createBook(bookRequest("Slow Book", "9780000000132"));
+            recorded.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return book;
+        }));
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+
+        BookDto fast;
+        try {
+            fast = bookService.createBook(bookRequest("Fast Book", "9780000000149"));
+            assertTrue(bookChangeFeedService.getChangesSince(cursor, 10).changes().isEmpty());
+        } finally {
+            release.countDown();
+        }
+        BookDto slowBook = slow.get(5, TimeUnit.SECONDS);
+
+        List<Long> bookIds = bookChangeFeedService.getChangesSince(cursor, 10).changes().stream()
+                .map(BookChangeDto::bookId)
+                .toList();
+        assertEquals(List.of(slowBook.id(), fast.id()), bookIds);
+
+        bookService.deleteBook(slowBook.id());
+        bookService.deleteBook(fast.id());
+    }
+
+    private static BookDto bookRequest(String title, String isbn) {
+        return BookDto.createRequest(title, "Feed Author", LocalDate.of(2024, 3, 1), "Testing",
+                new BigDecimal("12.50"), isbn);
+    }
+}
@@ -1,24 +1,42 @@
 package com.closedigit.bookstore.controller;
 
+import com.closedigit.bookstore.dto.BookBatchRequest;
+import com.closedigit.bookstore.dto.BookColumnsPageDto;
 import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.event.CatalogSnapshotInstalledEvent;
+import com.closedigit.bookstore.service.BookPageCache;
 import com.closedigit.bookstore.service.BookService;
+import com.closedigit.bookstore.service.CatalogStatisticsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +48,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(value = BookController.class, excludeAutoConfiguration = {
     org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class
 })
+@Import({SimpleMeterRegistry.class, BookPageCache.class})
 class BookControllerTest {
     
     @Autowired
@@ -38,19 +57,32 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
     
+    @MockBean
+    private CatalogStatisticsService catalogStatisticsService;
+    
     @MockBean
     private com.closedigit.bookstore.security.JwtUtil jwtUtil;
     
     @MockBean
     private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
     
+    @MockBean
+    private com.closedigit.bookstore.service.TokenRevocationService tokenRevocationService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private BookPageCache bookPageCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     private BookDto testBookDto;
     
     @BeforeEach
     void setUp() {
+        bookPageCache.invalidateAll();
         testBookDto = new BookDto(
                 1L,
                 "Test Book",
@@ -78,6 +110,74 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.content[0].author").value("Test Author"));
     }
     
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllBooks_RepeatedQuery_ShouldServeEncodedPageFromCache() throws Exception {
+        when(bookService.getAllBooks(any())).thenReturn(new PageImpl<>(List.of(testBookDto)));
+        
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/books")
+                    .param("sortBy", "TITLE"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(1))
+                    .andExpect(jsonPath("$.numberOfElements").value(1))
+                    .andExpect(jsonPath("$.empty").value(false));
+        }
+        
+        verify(bookService, times(1)).getAllBooks(any());
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllBooks_AfterSnapshotInstall_ShouldRenderPageAgain() throws Exception {
+        when(bookService.getAllBooks(any())).thenReturn(new PageImpl<>(List.of(testBookDto)));
+        
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+        eventPublisher.publishEvent(new CatalogSnapshotInstalledEvent(1));
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+        
+        verify(bookService, times(2)).getAllBooks(any());
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllBooks_WithColumnarAccept_ShouldListFieldNamesOnce() throws Exception {
+        when(bookService.getAllBooks(any())).thenReturn(new PageImpl<>(List.of(testBookDto)));
+        
+        mockMvc.perform(get("/api/books")
+                .accept(BookColumnsPageDto.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookColumnsPageDto.MEDIA_TYPE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(jsonPath("$.columns[1]").value("title"))
+                .andExpect(jsonPath("$.rows[0][0]").value(1))
+                .andExpect(jsonPath("$.rows[0][1]").value("Test Book"))
+                .andExpect(jsonPath("$.content").doesNotExist());
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void getBooksByIds_WithTooManyIds_ShouldReturnBadRequest() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+        
+        mockMvc.perform(post("/api/books/batch-get")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookBatchRequest(ids))))
+                .andExpect(status().isBadRequest());
+        
+        verify(bookService, never()).getBooksByIds(any());
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllBooks_WithPageSizeAboveRoleLimit_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/books")
+                .param("page", "0")
+                .param("size", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     @WithMockUser(roles = "USER")
     void getBookById_WithUserRole_ShouldReturnBook() throws Exception {
@@ -90,6 +190,31 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.author").value("Test Author"));
     }
     
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void streamAllBooks_WithAdminRole_ShouldWriteEveryChunkAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<BookDto>> consumer = invocation.getArgument(2);
+            consumer.accept(List.of(testBookDto, testBookDto));
+            consumer.accept(List.of(testBookDto));
+            return null;
+        }).when(bookService).streamAllBooks(any(), anyInt(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/books/stream")
+                .param("sortBy", "price"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(testBookDto, objectMapper.readValue(lines[0], BookDto.class));
+    }
+    
     @Test
     @WithMockUser(roles = "ADMIN")
     void createBook_WithAdminRole_ShouldCreateBook() throws Exception {
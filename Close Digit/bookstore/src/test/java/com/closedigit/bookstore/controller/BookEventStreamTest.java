@@ -0,0 +1,77 @@
+package com.closedigit.bookstore.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.service.BookEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for the book event stream
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookEventBroadcaster bookEventBroadcaster;
+
+    @Test
+    void streamBookEvents_ShouldPushCommittedChangesToSubscribers() throws Exception {
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("user", "user"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String token = objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class)
+                .token();
+
+        MvcResult stream = mockMvc.perform(get("/api/books/events")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        BookDto book = new BookDto(77L, "Live Book", "Live Author", LocalDate.of(2024, 1, 1), null,
+                new BigDecimal("9.99"), "9780000000777");
+        bookEventBroadcaster.onBookChanged(BookChangedEvent.updated(book, book));
+
+        MockHttpServletResponse response = stream.getResponse();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains("Live Book") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        String content = response.getContentAsString();
+        assertTrue(content.contains("event:book"), content);
+        assertTrue(content.contains("\"type\":\"UPDATED\""), content);
+        assertTrue(content.contains("\"bookId\":77"), content);
+    }
+}
@@ -0,0 +1,98 @@
+package com.closedigit.bookstore.controller;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for book filtering and facet counts
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class BookFilteringTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String userToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AuthRequest loginRequest = new AuthRequest("user", "user");
+
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        AuthResponse authResponse = objectMapper.readValue(loginResult.getResponse().getContentAsString(),
+                AuthResponse.class);
+        userToken = authResponse.token();
+    }
+
+    @Test
+    void getAllBooks_WithGenreAndPriceFilter_ShouldReturnMatchingBooksAndFacets() throws Exception {
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + userToken)
+                .param("genre", "Programming")
+                .param("priceMax", "30.00")
+                .param("sortBy", "price")
+                .param("sortDir", "asc")
+                .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[*].genre", everyItem(is("Programming"))))
+                .andExpect(jsonPath("$.content[0].title").value("Head First Java"))
+                .andExpect(jsonPath("$.facets.genres[0].value").value("Programming"))
+                .andExpect(jsonPath("$.facets.genres[0].count").value(3))
+                .andExpect(jsonPath("$.facets.priceRanges[?(@.value == '25-50')].count").value(3));
+    }
+
+    @Test
+    void getAllBooks_WithPublishedDateRange_ShouldOmitFacetsByDefault() throws Exception {
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + userToken)
+                .param("publishedFrom", "2021-01-01")
+                .param("publishedTo", "2021-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.pageable.pageNumber").value(0))
+                .andExpect(jsonPath("$.pageable.pageSize").value(10))
+                .andExpect(jsonPath("$.sort.sorted").value(true))
+                .andExpect(jsonPath("$.numberOfElements").value(2))
+                .andExpect(jsonPath("$.facets").doesNotExist());
+    }
+
+    @Test
+    void getAllBooks_WithInvertedPriceRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + userToken)
+                .param("priceMin", "50")
+                .param("priceMax", "10"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -39,7 +39,7 @@ class BookSortingTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        AuthRequest loginRequest = new AuthRequest("admin", "admin123");
+        AuthRequest loginRequest = new AuthRequest("admin", "admin");
         
         MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
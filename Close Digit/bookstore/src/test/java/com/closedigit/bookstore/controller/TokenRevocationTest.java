@@ -0,0 +1,141 @@
+package com.closedigit.bookstore.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.RefreshTokenRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for logout, token refresh and revocation
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class TokenRevocationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void logout_ShouldRevokeOnlyThePresentedToken() throws Exception {
+        String loggedOut = login("user", "user");
+        String other = login("user", "user");
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + loggedOut))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + loggedOut))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + other))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refresh_ShouldIssueNewPairAndRevokeTheUsedRefreshToken() throws Exception {
+        AuthResponse session = loginSession("user", "user");
+        String refreshBody = objectMapper.writeValueAsString(new RefreshTokenRequest(session.refreshToken()));
+
+        MvcResult refreshResult = mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshBody))
+                .andExpect(status().isOk())
+                .andReturn();
+        AuthResponse refreshed = objectMapper.readValue(refreshResult.getResponse().getContentAsString(),
+                AuthResponse.class);
+
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + refreshed.token()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshBody))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/books")
+                .header("Authorization", "Bearer " + session.refreshToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void refresh_WithSameTokenConcurrently_ShouldRotateItOnce() throws Exception {
+        String refreshBody = objectMapper.writeValueAsString(
+                new RefreshTokenRequest(loginSession("user", "user").refreshToken()));
+        int clients = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(refreshBody))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, Collections.frequency(results, 200));
+            assertEquals(clients - 1, Collections.frequency(results, 401));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void logout_WithoutToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String login(String username, String password) throws Exception {
+        return loginSession(username, password).token();
+    }
+
+    private AuthResponse loginSession(String username, String password) throws Exception {
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.closedigit.bookstore.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.UserSliceDto;
+import com.closedigit.bookstore.entity.Role;
+import com.closedigit.bookstore.entity.User;
+import com.closedigit.bookstore.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for paged, keyset and exported user listings
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class UserListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            userRepository.save(new User("reader0" + i, "reader0" + i + "@test.com", "{noop}secret", Role.USER));
+        }
+
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("admin", "admin"))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        adminToken = objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class)
+                .token();
+    }
+
+    @Test
+    void getAllUsers_WithPrefixAndRole_ShouldReturnSortedPage() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("usernamePrefix", "reader")
+                .param("role", "USER")
+                .param("sortBy", "username")
+                .param("sortDir", "desc")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.content[0].username").value("reader05"))
+                .andExpect(jsonPath("$.content[*].username", everyItem(startsWith("reader"))))
+                .andExpect(jsonPath("$.content[0].password").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_WithOversizedPage_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollUsers_ShouldWalkAllMatchesWithKeysetCursor() throws Exception {
+        UserSliceDto first = scroll(null);
+        assertEquals(3, first.content().size());
+        assertEquals(first.content().get(2).id(), first.nextAfterId());
+
+        UserSliceDto second = scroll(first.nextAfterId());
+        assertEquals(2, second.content().size());
+        assertEquals("reader05", second.content().get(1).username());
+        assertNull(second.nextAfterId());
+    }
+
+    @Test
+    void exportUsers_ShouldStreamMatchingUsersAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("role", "ADMIN"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // the export reads on another thread, outside this test's transaction: only seeded users are visible
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(not(containsString("password"))))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"admin\""));
+    }
+
+    private UserSliceDto scroll(Long afterId) throws Exception {
+        var requestBuilder = get("/api/users/scroll")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("usernamePrefix", "reader")
+                .param("limit", "3");
+        if (afterId != null) {
+            requestBuilder.param("afterId", afterId.toString());
+        }
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), UserSliceDto.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.closedigit.bookstore.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.entity.Book;
+
+/**
+ * Tests for the DTO projection queries of BookRepository
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        bookRepository.save(new Book("Brave New World", "Huxley", LocalDate.of(1932, 1, 1),
+                new BigDecimal("20.00"), "9780060850524"));
+        bookRepository.save(new Book("Animal Farm", "Orwell", LocalDate.of(1945, 8, 17),
+                new BigDecimal("10.00"), "9780451526342"));
+        bookRepository.save(new Book("Cosmos", "Sagan", LocalDate.of(1980, 1, 1),
+                new BigDecimal("15.00"), "9780345539434"));
+    }
+
+    @Test
+    void findAllProjectedBy_WithSortOnNonIdField_ShouldApplyItToTheProjection() {
+        Page<BookDto> page = bookRepository.findAllProjectedBy(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(List.of("Brave New World", "Cosmos"), page.getContent().stream().map(BookDto::title).toList());
+        assertEquals(3, page.getTotalElements());
+
+        Page<BookDto> byTitle = bookRepository.findAllProjectedBy(
+                PageRequest.of(1, 2, Sort.by("title").and(Sort.by("author"))));
+
+        assertEquals(List.of("Cosmos"), byTitle.getContent().stream().map(BookDto::title).toList());
+        assertEquals("Sagan", byTitle.getContent().get(0).author());
+    }
+
+    @Test
+    void findBy_WithKeysetPosition_ShouldWalkTheCatalogInChunks() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "price");
+        List<String> titles = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Book> chunk;
+        do {
+            chunk = bookRepository.findBy(position, sort, Limit.of(2));
+            chunk.forEach(book -> titles.add(book.getTitle()));
+            position = chunk.positionAt(chunk.size() - 1);
+        } while (chunk.hasNext());
+
+        assertEquals(List.of("Brave New World", "Cosmos", "Animal Farm"), titles);
+    }
+}
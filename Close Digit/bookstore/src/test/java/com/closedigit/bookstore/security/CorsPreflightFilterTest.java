@@ -0,0 +1,96 @@
+package com.closedigit.bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for CorsPreflightFilter
+ */
+class CorsPreflightFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger configLookups = new AtomicInteger();
+
+    private CorsPreflightFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of("https://*.example.com"));
+        configuration.setAllowedMethods(List.of("GET", "POST"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(86400L);
+
+        filter = new CorsPreflightFilter(request -> {
+            configLookups.incrementAndGet();
+            return configuration;
+        }, meterRegistry);
+    }
+
+    @Test
+    void preflight_FromAllowedOrigin_ShouldBeAnsweredWithoutReachingTheChain() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(preflight("https://shop.example.com", "POST"), response, chain);
+
+            assertNull(chain.getRequest());
+            assertEquals(200, response.getStatus());
+            assertEquals("https://shop.example.com", response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+            assertEquals("authorization,content-type",
+                    response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS));
+            assertEquals("true", response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS));
+            assertEquals("86400", response.getHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE));
+        }
+        assertEquals(2, meterRegistry.get("http.cors.requests")
+                .tags("type", "preflight", "outcome", "allowed").counter().count());
+    }
+
+    @Test
+    void preflight_WithDisallowedMethod_ShouldBeRejected() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(preflight("https://shop.example.com", "DELETE"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(403, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+    }
+
+    @Test
+    void actualRequest_ShouldPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.addHeader(HttpHeaders.ORIGIN, "https://shop.example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        assertEquals(0, configLookups.get());
+    }
+
+    private static MockHttpServletRequest preflight(String origin, String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/books");
+        request.addHeader(HttpHeaders.ORIGIN, origin);
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, method);
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization,content-type");
+        return request;
+    }
+}
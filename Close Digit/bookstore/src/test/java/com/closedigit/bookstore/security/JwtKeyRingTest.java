@@ -0,0 +1,155 @@
+package com.closedigit.bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.closedigit.bookstore.entity.JwtSigningKey;
+import com.closedigit.bookstore.repository.JwtSigningKeyRepository;
+
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Tests for JwtKeyRing, through the tokens JwtUtil signs with it.
+ * Several rings over the same repository stand in for several nodes, or for one node restarting.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class JwtKeyRingTest {
+
+    private static final long MAX_TOKEN_LIFETIME = 60_000;
+    private static final long ROTATION_INTERVAL = 3_600_000;
+    private static final String KEY_ENCRYPTION_KEY = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+    @Autowired
+    private JwtSigningKeyRepository keyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private final UserDetails reader = User.withUsername("reader").password("").roles("USER").build();
+
+    @Test
+    void rotate_ShouldKeepVerifyingTokensOfRetiredKeyUntilTheyExpire() {
+        JwtKeyRing keyRing = ecKeyRing();
+        JwtUtil jwtUtil = new JwtUtil(keyRing, 30_000, MAX_TOKEN_LIFETIME);
+        String token = jwtUtil.generateToken(reader);
+        String retiredKid = keyRing.activeKey().kid();
+
+        keyRing.rotate();
+
+        assertEquals("reader", jwtUtil.extractUsername(token));
+        assertTrue(kids(keyRing).contains(retiredKid));
+
+        clock.addAndGet(MAX_TOKEN_LIFETIME);
+        keyRing.rotate();
+
+        assertThrows(SignatureException.class, () -> jwtUtil.extractAllClaims(token));
+        assertFalse(kids(keyRing).contains(retiredKid));
+    }
+
+    @Test
+    void publicJwks_ShouldPublishNextKeyBeforeItSigns() {
+        JwtKeyRing keyRing = ecKeyRing();
+        List<String> published = kids(keyRing);
+
+        assertEquals(2, published.size());
+        keyRing.rotate();
+
+        assertTrue(published.contains(keyRing.activeKey().kid()));
+        Map<String, Object> jwk = keyRing.publicJwks().get(0);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+    }
+
+    @Test
+    void keyRing_ShouldBeSharedAcrossNodesAndRestarts() {
+        JwtKeyRing first = ecKeyRing();
+        JwtKeyRing second = ecKeyRing();
+        JwtUtil firstUtil = new JwtUtil(first, 30_000, MAX_TOKEN_LIFETIME);
+        JwtUtil secondUtil = new JwtUtil(second, 30_000, MAX_TOKEN_LIFETIME);
+
+        assertEquals(first.activeKey().kid(), second.activeKey().kid());
+        assertEquals("reader", secondUtil.extractUsername(firstUtil.generateToken(reader)));
+
+        // two rotations activate a key created after the second node last loaded the ring:
+        // it learns the key from the first token that names it
+        first.rotate();
+        first.rotate();
+        clock.addAndGet(1_000);
+        assertEquals("reader", secondUtil.extractUsername(firstUtil.generateToken(reader)));
+        assertEquals(first.activeKey().kid(), second.activeKey().kid());
+
+        JwtKeyRing restarted = ecKeyRing();
+        assertEquals(first.activeKey().kid(), restarted.activeKey().kid());
+    }
+
+    @Test
+    void reload_ShouldRotateOnceWhenTheIntervalHasPassed() {
+        JwtKeyRing first = ecKeyRing();
+        JwtKeyRing second = ecKeyRing();
+        String initialKid = first.activeKey().kid();
+
+        first.reload();
+        assertEquals(initialKid, first.activeKey().kid());
+
+        clock.addAndGet(ROTATION_INTERVAL);
+        first.reload();
+        second.reload();
+
+        assertNotEquals(initialKid, first.activeKey().kid());
+        assertEquals(first.activeKey().kid(), second.activeKey().kid());
+        assertEquals(3, kids(second).size());
+    }
+
+    @Test
+    void extractAllClaims_WithTokenFromAnotherAlgorithm_ShouldBeRejected() {
+        JwtUtil hmacUtil = new JwtUtil(new JwtKeyRing("HS256", "testclosedigitbookstore123456789012345678901234567890",
+                MAX_TOKEN_LIFETIME, ROTATION_INTERVAL, "", null, null, clock::get), 30_000, MAX_TOKEN_LIFETIME);
+        JwtUtil ecUtil = new JwtUtil(ecKeyRing(), 30_000, MAX_TOKEN_LIFETIME);
+
+        assertEquals("reader", hmacUtil.extractUsername(hmacUtil.generateToken(reader)));
+        assertThrows(SignatureException.class, () -> ecUtil.extractAllClaims(hmacUtil.generateToken(reader)));
+    }
+
+    @Test
+    void keyRing_ShouldStorePrivateKeysEncryptedUnderTheKeyEncryptionKey() {
+        JwtKeyRing keyRing = ecKeyRing();
+        JwtSigningKey stored = keyRepository.findById(keyRing.activeKey().kid()).orElseThrow();
+
+        assertFalse(Arrays.equals(keyRing.activeKey().signingKey().getEncoded(),
+                Base64.getDecoder().decode(stored.getPrivateKey())));
+        assertThrows(IllegalStateException.class, () -> ecKeyRing("ZmVkY2JhOTg3NjU0MzIxMGZlZGNiYTk4NzY1NDMyMTA="));
+        assertThrows(IllegalStateException.class, () -> ecKeyRing(""));
+    }
+
+    private JwtKeyRing ecKeyRing() {
+        return ecKeyRing(KEY_ENCRYPTION_KEY);
+    }
+
+    private JwtKeyRing ecKeyRing(String keyEncryptionKey) {
+        return new JwtKeyRing("ES256", "", MAX_TOKEN_LIFETIME, ROTATION_INTERVAL, keyEncryptionKey, keyRepository,
+                transactionManager, clock::get);
+    }
+
+    private static List<String> kids(JwtKeyRing keyRing) {
+        return keyRing.publicJwks().stream().map(jwk -> (String) jwk.get("kid")).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.closedigit.bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Unit tests for PasswordHashingPolicy
+ */
+class PasswordHashingPolicyTest {
+
+    private final PasswordEncoder policy = PasswordHashingPolicy.create("bcrypt", 1, 5, 5, 19456);
+
+    @Test
+    void create_ShouldClampCalibratedStrengthAndPrefixHashes() {
+        String hash = policy.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(policy.matches("secret", hash));
+        assertFalse(policy.upgradeEncoding(hash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagLegacyAndCheaperHashes() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        String seeded = PasswordHashingPolicy.seedEncoder().encode("secret");
+
+        assertTrue(policy.matches("secret", legacy));
+        assertTrue(policy.upgradeEncoding(legacy));
+        assertTrue(policy.matches("secret", seeded));
+        assertTrue(policy.upgradeEncoding(seeded));
+    }
+
+    @Test
+    void login_WithOutdatedHash_ShouldStoreRehashedPassword() {
+        AtomicReference<String> stored = new AtomicReference<>(PasswordHashingPolicy.seedEncoder().encode("secret"));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(policy);
+        provider.setUserDetailsService(username -> User.withUsername(username).password(stored.get())
+                .roles("USER").build());
+        provider.setUserDetailsPasswordService((user, newPassword) -> {
+            stored.set(newPassword);
+            return User.withUserDetails(user).password(newPassword).build();
+        });
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("reader", "secret"));
+
+        assertEquals("$2a$05$", stored.get().substring("{bcrypt}".length(), "{bcrypt}".length() + 7));
+        assertTrue(policy.matches("secret", stored.get()));
+    }
+
+    @Test
+    void create_WithArgon2AndNoBouncyCastle_ShouldFailFast() {
+        assertThrows(IllegalStateException.class, () -> PasswordHashingPolicy.create("argon2", 1, 4, 4, 19456));
+    }
+}
@@ -0,0 +1,42 @@
+package com.closedigit.bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for TokenFailureLog
+ */
+class TokenFailureLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void record_ShouldCountEveryFailureByReason() {
+        TokenFailureLog failureLog = new TokenFailureLog(meterRegistry, 60_000, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            failureLog.record(new MalformedJwtException("bad token"));
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        failureLog.record(new SignatureException("forged"));
+
+        assertEquals(1000, meterRegistry.get("auth.token.failures").tag("reason", "malformed").counter().count());
+        assertEquals(1, meterRegistry.get("auth.token.failures").tag("reason", "signature").counter().count());
+    }
+
+    @Test
+    void reasonOf_ShouldClassifyUnknownUsers() {
+        assertEquals("unknown-user", TokenFailureLog.reasonOf(new UsernameNotFoundException("gone")));
+        assertEquals("invalid", TokenFailureLog.reasonOf(new IllegalStateException("other")));
+    }
+}
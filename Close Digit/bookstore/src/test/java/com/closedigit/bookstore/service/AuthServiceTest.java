@@ -0,0 +1,171 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.closedigit.bookstore.dto.AuthRequest;
+import com.closedigit.bookstore.dto.AuthResponse;
+import com.closedigit.bookstore.dto.RegisterRequest;
+import com.closedigit.bookstore.dto.UserDto;
+import com.closedigit.bookstore.entity.Role;
+import com.closedigit.bookstore.entity.User;
+import com.closedigit.bookstore.exception.RateLimitExceededException;
+import com.closedigit.bookstore.mapper.UserMapper;
+import com.closedigit.bookstore.security.JwtUtil;
+import com.closedigit.bookstore.security.LoginAttemptLimiter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Unit tests for AuthService
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private User testUser;
+    private UserDto testUserDto;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User("reader", "reader@test.com", "$2a$10$hash", Role.USER);
+        testUser.setId(7L);
+        testUserDto = new UserDto(7L, "reader", "reader@test.com", Role.USER, null, null);
+    }
+
+    @Test
+    void register_ShouldIssueTokenFromSavedUserWithoutReauthenticating() {
+        RegisterRequest request = new RegisterRequest("reader", "reader@test.com", "password123");
+        when(userService.createUser(request)).thenReturn(testUser);
+        when(jwtUtil.generateToken(eq(testUser), any())).thenReturn("jwt-token");
+        when(userMapper.toDto(testUser)).thenReturn(testUserDto);
+
+        AuthResponse response = authService.register(request);
+
+        assertEquals("jwt-token", response.token());
+        assertEquals(testUserDto, response.user());
+
+        verify(userService, times(1)).createUser(request);
+        verify(authenticationManager, never()).authenticate(any());
+        verify(userService, never()).getUserByUsername(anyString());
+    }
+
+    @Test
+    void login_WithValidCredentials_ShouldReturnToken() {
+        AuthRequest request = new AuthRequest("reader", "password123");
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(testUser, null, testUser.getAuthorities()));
+        when(jwtUtil.generateToken(eq(testUser), any())).thenReturn("jwt-token");
+        when(userService.getUserByUsername("reader")).thenReturn(testUserDto);
+
+        AuthResponse response = authService.login(request, "127.0.0.1");
+
+        assertEquals("jwt-token", response.token());
+        assertEquals("Bearer", response.type());
+        assertEquals(testUserDto, response.user());
+    }
+
+    @Test
+    void login_WithBadCredentials_ShouldThrowException() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.login(new AuthRequest("reader", "wrong"), "127.0.0.1"));
+
+        verify(jwtUtil, never()).generateToken(any(), any());
+    }
+
+    @Test
+    void refresh_WithAccessToken_ShouldBeRejected() {
+        Claims claims = Jwts.claims().setSubject("reader");
+        claims.put(JwtUtil.TOKEN_TYPE_CLAIM, JwtUtil.ACCESS_TOKEN);
+        when(jwtUtil.extractAllClaims("access-token")).thenReturn(claims);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("access-token"));
+
+        verify(userService, never()).loadUserByUsername(anyString());
+        verify(tokenRevocationService, never()).claimToken(any(), any(), any());
+    }
+
+    @Test
+    void refresh_WithValidRefreshToken_ShouldRotateIt() {
+        Date expiresAt = new Date((System.currentTimeMillis() / 1000 + 60) * 1000);
+        Claims claims = Jwts.claims().setSubject("reader").setId("refresh-1").setExpiration(expiresAt);
+        claims.put(JwtUtil.TOKEN_TYPE_CLAIM, JwtUtil.REFRESH_TOKEN);
+        when(jwtUtil.extractAllClaims("refresh-token")).thenReturn(claims);
+        when(tokenRevocationService.claimToken("refresh-1", "reader", expiresAt)).thenReturn(true);
+        when(userService.loadUserByUsername("reader")).thenReturn(testUser);
+        when(jwtUtil.generateToken(eq(testUser), any())).thenReturn("new-access");
+        when(jwtUtil.generateRefreshToken(eq(testUser), any())).thenReturn("new-refresh");
+        when(userMapper.toDto(testUser)).thenReturn(testUserDto);
+
+        AuthResponse response = authService.refresh("refresh-token");
+
+        assertEquals("new-access", response.token());
+        assertEquals("new-refresh", response.refreshToken());
+    }
+
+    @Test
+    void refresh_WithRefreshTokenClaimedConcurrently_ShouldBeRejected() {
+        Claims claims = Jwts.claims().setSubject("reader").setId("refresh-1")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtUtil.TOKEN_TYPE_CLAIM, JwtUtil.REFRESH_TOKEN);
+        when(jwtUtil.extractAllClaims("refresh-token")).thenReturn(claims);
+        when(tokenRevocationService.claimToken(eq("refresh-1"), eq("reader"), any())).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("refresh-token"));
+        verify(jwtUtil, never()).generateRefreshToken(any(), any());
+    }
+
+    @Test
+    void login_WhenThrottled_ShouldRejectBeforeVerifyingPassword() {
+        AuthRequest request = new AuthRequest("reader", "password123");
+        doThrow(new RateLimitExceededException("Too many login attempts", 6))
+                .when(loginAttemptLimiter).checkAttempt("reader", "10.0.0.1");
+
+        assertThrows(RateLimitExceededException.class, () -> authService.login(request, "10.0.0.1"));
+
+        verify(authenticationManager, never()).authenticate(any());
+    }
+}
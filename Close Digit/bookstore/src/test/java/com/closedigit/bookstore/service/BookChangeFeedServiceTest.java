@@ -0,0 +1,70 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.closedigit.bookstore.dto.BookChangesDto;
+import com.closedigit.bookstore.exception.ChangesExpiredException;
+import com.closedigit.bookstore.exception.ServiceOverloadedException;
+import com.closedigit.bookstore.repository.BookChangeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for BookChangeFeedService
+ */
+@ExtendWith(MockitoExtension.class)
+class BookChangeFeedServiceTest {
+
+    private static final int MAX_WAITERS = 2;
+
+    @Mock
+    private BookChangeRepository bookChangeRepository;
+
+    private BookChangeFeedService feedService;
+
+    @BeforeEach
+    void setUp() {
+        feedService = new BookChangeFeedService(bookChangeRepository, new ObjectMapper(), Runnable::run, 500, 7,
+                MAX_WAITERS);
+        when(bookChangeRepository.findMaxSequence()).thenReturn(0L);
+    }
+
+    @Test
+    void awaitChangesSince_BeyondMaxWaiters_ShouldShedUntilAWaiterCompletes() {
+        CompletableFuture<BookChangesDto> first = feedService.awaitChangesSince(0, 10);
+        feedService.awaitChangesSince(0, 10);
+        assertFalse(first.isDone());
+
+        assertThrows(ServiceOverloadedException.class, () -> feedService.awaitChangesSince(0, 10));
+
+        first.complete(new BookChangesDto(List.of(), 0, false));
+        assertFalse(feedService.awaitChangesSince(0, 10).isDone());
+    }
+
+    @Test
+    void getChangesSince_BehindThePurgedChanges_ShouldFailSoTheConsumerResyncs() {
+        when(bookChangeRepository.findMaxSequenceChangedBefore(any())).thenReturn(10L);
+        when(bookChangeRepository.deleteChangedBefore(any())).thenReturn(10);
+
+        feedService.purgeExpiredChanges();
+
+        ChangesExpiredException expired = assertThrows(ChangesExpiredException.class,
+                () -> feedService.getChangesSince(9, 10));
+        assertEquals(11, expired.getOldestRetainedSequence());
+        assertThrows(ChangesExpiredException.class, () -> feedService.awaitChangesSince(0, 10));
+        assertTrue(feedService.getChangesSince(10, 10).changes().isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for BookEventBroadcaster
+ */
+class BookEventBroadcasterTest {
+
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long WRITE_TIMEOUT_MS = 50;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookEventBroadcaster broadcaster = new BookEventBroadcaster(
+            new ObjectMapper().findAndRegisterModules(), 60_000, 2, QUEUE_CAPACITY, WRITE_TIMEOUT_MS, meterRegistry);
+    private final BookDto book = new BookDto(7L, "Book", "Author", LocalDate.of(2024, 1, 1), null,
+            new BigDecimal("9.99"), "9780000000007");
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void onBookChanged_WithSlowSubscriber_ShouldDropItAndKeepServingOthers() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        broadcaster.subscribe(slow);
+        broadcaster.subscribe(fast);
+        slow.awaitSends(1);
+
+        // paced on the fast subscriber, so only the slow one falls behind
+        for (int i = 1; i <= QUEUE_CAPACITY * 3; i++) {
+            broadcaster.onBookChanged(BookChangedEvent.updated(book, book));
+            fast.awaitSends(i + 1);
+        }
+
+        assertEquals(1.0, meterRegistry.get("catalog.events.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("catalog.events.subscribers").gauge().value());
+
+        // completed by its own writer once the blocked write returns
+        slow.release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void heartbeat_WithStalledWrite_ShouldDropSubscriberWithoutBlocking() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(new CountDownLatch(1));
+        broadcaster.subscribe(stalled);
+        stalled.awaitSends(1);
+        Thread.sleep(WRITE_TIMEOUT_MS * 2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), broadcaster::heartbeat);
+
+        assertEquals(1.0, meterRegistry.get("catalog.events.dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("catalog.events.subscribers").gauge().value());
+        stalled.release.countDown();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Counts writes, each blocking until released
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final AtomicInteger sends = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        void awaitSends(int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (sends.get() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(expected, sends.get());
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sends.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -15,16 +15,23 @@ import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.closedigit.bookstore.catalog.CatalogSnapshotManager;
+import com.closedigit.bookstore.dto.BookBatchDto;
 import com.closedigit.bookstore.dto.BookDto;
 import com.closedigit.bookstore.entity.Book;
+import com.closedigit.bookstore.event.BookChangedEvent;
 import com.closedigit.bookstore.exception.BookNotFoundException;
 import com.closedigit.bookstore.exception.DuplicateIsbnException;
 import com.closedigit.bookstore.mapper.BookMapper;
@@ -46,6 +53,12 @@ class BookServiceTest {
     @Mock
     private IsbnValidator isbnValidator;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<CatalogSnapshotManager> catalogSnapshot;
+
     @InjectMocks
     private BookService bookService;
 
@@ -76,10 +89,9 @@ class BookServiceTest {
     @Test
     void getAllBooks_ShouldReturnPageOfBooks() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(testBook));
+        Page<BookDto> bookPage = new PageImpl<>(List.of(testBookDto));
 
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
-        when(bookMapper.toDto(testBook)).thenReturn(testBookDto);
+        when(bookRepository.findAllProjectedBy(pageable)).thenReturn(bookPage);
 
         Page<BookDto> result = bookService.getAllBooks(pageable);
 
@@ -87,8 +99,8 @@ class BookServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(testBookDto, result.getContent().get(0));
 
-        verify(bookRepository).findAll(pageable);
-        verify(bookMapper).toDto(testBook);
+        verify(bookRepository).findAllProjectedBy(pageable);
+        verify(bookMapper, never()).toDto(any());
     }
 
     @Test
@@ -117,6 +129,20 @@ class BookServiceTest {
         verify(bookMapper, never()).toDto(any());
     }
 
+    @Test
+    void getBooksByIds_ShouldKeepRequestOrderAndReportMissingIds() {
+        BookDto otherBookDto = new BookDto(2L, "Other Book", "Other Author", LocalDate.of(2020, 5, 1),
+                "History", new BigDecimal("9.99"), "9780306406157");
+        when(bookRepository.findAllProjectedByIdIn(List.of(2L, 99L, 1L)))
+                .thenReturn(List.of(testBookDto, otherBookDto));
+
+        BookBatchDto result = bookService.getBooksByIds(List.of(2L, 99L, 1L, 2L));
+
+        assertEquals(List.of(otherBookDto, testBookDto), result.books());
+        assertEquals(List.of(99L), result.missingIds());
+        verify(bookRepository, never()).findById(any());
+    }
+
     @Test
     void createBook_WhenValidBook_ShouldCreateBook() {
         when(isbnValidator.isValidIsbn(testBookDto.isbn())).thenReturn(true);
@@ -135,6 +161,7 @@ class BookServiceTest {
         verify(bookMapper).toEntity(testBookDto);
         verify(bookRepository).save(testBook);
         verify(bookMapper).toDto(testBook);
+        verify(eventPublisher).publishEvent(BookChangedEvent.created(testBookDto));
     }
 
     @Test
@@ -173,28 +200,32 @@ class BookServiceTest {
 
         verify(bookRepository).findById(bookId);
         verify(bookRepository).save(testBook);
-        verify(bookMapper).toDto(testBook);
+        verify(bookMapper, times(2)).toDto(testBook);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
     void deleteBook_WhenBookExists_ShouldDeleteBook() {
         Long bookId = 1L;
-        when(bookRepository.existsById(bookId)).thenReturn(true);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
+        when(bookMapper.toDto(testBook)).thenReturn(testBookDto);
 
         bookService.deleteBook(bookId);
 
-        verify(bookRepository).existsById(bookId);
-        verify(bookRepository).deleteById(bookId);
+        verify(bookRepository).findById(bookId);
+        verify(bookRepository).delete(testBook);
+        verify(eventPublisher).publishEvent(BookChangedEvent.deleted(testBookDto));
     }
 
     @Test
     void deleteBook_WhenBookNotExists_ShouldThrowException() {
         Long bookId = 1L;
-        when(bookRepository.existsById(bookId)).thenReturn(false);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
 
         assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(bookId));
 
-        verify(bookRepository).existsById(bookId);
-        verify(bookRepository, never()).deleteById(any());
+        verify(bookRepository).findById(bookId);
+        verify(bookRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file
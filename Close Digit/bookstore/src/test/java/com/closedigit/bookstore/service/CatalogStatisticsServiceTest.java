@@ -0,0 +1,124 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.closedigit.bookstore.dto.BookDto;
+import com.closedigit.bookstore.dto.BookStatsRow;
+import com.closedigit.bookstore.dto.CatalogStatsDto;
+import com.closedigit.bookstore.dto.GroupStatsDto;
+import com.closedigit.bookstore.event.BookChangedEvent;
+import com.closedigit.bookstore.repository.BookRepository;
+
+/**
+ * Unit tests for CatalogStatisticsService
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogStatisticsServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CatalogStatisticsService statisticsService;
+
+    @Test
+    void onBookChanged_ShouldMaintainAggregatesIncrementally() {
+        BookDto first = book(1L, "Orwell", "Fiction", LocalDate.of(1945, 8, 17), "10.00");
+        BookDto second = book(2L, "Huxley", "Fiction", LocalDate.of(1932, 1, 1), "20.00");
+
+        statisticsService.onBookChanged(BookChangedEvent.created(first));
+        statisticsService.onBookChanged(BookChangedEvent.created(second));
+
+        GroupStatsDto fiction = statisticsService.getStatistics().genres().get(0);
+        assertEquals(2, fiction.count());
+        assertEquals(new BigDecimal("15.00"), fiction.averagePrice());
+        assertEquals(LocalDate.of(1932, 1, 1), fiction.earliestPublished());
+        assertEquals(LocalDate.of(1945, 8, 17), fiction.latestPublished());
+
+        statisticsService.onBookChanged(BookChangedEvent.deleted(second));
+        statisticsService.onBookChanged(BookChangedEvent.updated(first,
+                book(1L, "Orwell", "Dystopia", LocalDate.of(1949, 6, 8), "12.50")));
+
+        CatalogStatsDto stats = statisticsService.getStatistics();
+        assertEquals(1, stats.totalBooks());
+        assertEquals(1, stats.genres().size());
+        assertEquals("Dystopia", stats.genres().get(0).name());
+        assertEquals(LocalDate.of(1949, 6, 8), stats.genres().get(0).latestPublished());
+        assertEquals(List.of("Orwell"), stats.authors().stream().map(GroupStatsDto::name).toList());
+    }
+
+    @Test
+    void reconcile_ShouldRebuildFromGroupedQueries() {
+        LocalDate date = LocalDate.of(2020, 5, 1);
+        when(bookRepository.aggregateByGenreAndPublishedDate()).thenReturn(List.of(
+                new BookStatsRow("Science", date, 3L, new BigDecimal("30.00")),
+                new BookStatsRow(null, date, 1L, new BigDecimal("5.00"))));
+        when(bookRepository.aggregateByAuthorAndPublishedDate()).thenReturn(List.of(
+                new BookStatsRow("Sagan", date, 4L, new BigDecimal("35.00"))));
+        statisticsService.onBookChanged(BookChangedEvent.created(
+                book(9L, "Stale", "Stale", date, "1.00")));
+
+        statisticsService.reconcile();
+
+        CatalogStatsDto stats = statisticsService.getStatistics();
+        assertEquals(4, stats.totalBooks());
+        assertEquals("Science", stats.genres().get(0).name());
+        assertEquals(new BigDecimal("10.00"), stats.genres().get(0).averagePrice());
+        assertNull(stats.genres().get(1).name());
+        assertEquals(new BigDecimal("8.75"), stats.authors().get(0).averagePrice());
+        assertNotNull(stats.reconciledAt());
+    }
+
+    @Test
+    void reconcile_WhileChangeIsPending_ShouldKeepIncrementalStateUntilItCompletes() {
+        LocalDate date = LocalDate.of(2020, 5, 1);
+        BookDto book = book(9L, "Sagan", "Science", date, "10.00");
+        when(bookRepository.aggregateByGenreAndPublishedDate()).thenReturn(List.of(
+                new BookStatsRow("Science", date, 1L, new BigDecimal("10.00"))));
+        when(bookRepository.aggregateByAuthorAndPublishedDate()).thenReturn(List.of(
+                new BookStatsRow("Sagan", date, 1L, new BigDecimal("10.00"))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // committed and visible to the grouped queries, but not yet applied
+            statisticsService.onBookChangePublished(BookChangedEvent.created(book));
+            statisticsService.reconcile();
+            assertNull(statisticsService.getStatistics().reconciledAt());
+
+            statisticsService.onBookChanged(BookChangedEvent.created(book));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        statisticsService.reconcile();
+
+        CatalogStatsDto stats = statisticsService.getStatistics();
+        assertEquals(1, stats.totalBooks());
+        assertNotNull(stats.reconciledAt());
+    }
+
+    private static BookDto book(Long id, String author, String genre, LocalDate publishedDate, String price) {
+        return new BookDto(id, "Title " + id, author, publishedDate, genre, new BigDecimal(price), "978000000000" + id);
+    }
+}
@@ -0,0 +1,86 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SingleFlight
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_WithConcurrentCallersForSameKey_ShouldRunLoaderOnce() throws Exception {
+        int callers = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("page-0", () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return 42;
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("page-0", () -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            Thread.sleep(200);
+            releaseLoader.countDown();
+
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_AfterFlightLands_ShouldLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("page-0", loads::incrementAndGet);
+        int second = singleFlight.execute("page-0", loads::incrementAndGet);
+
+        assertEquals(2, second);
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldPropagateException() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("page-0", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(7, singleFlight.execute("page-0", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
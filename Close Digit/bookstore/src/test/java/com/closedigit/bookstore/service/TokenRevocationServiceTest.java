@@ -0,0 +1,148 @@
+package com.closedigit.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.closedigit.bookstore.entity.ConsumedRefreshToken;
+import com.closedigit.bookstore.entity.RevokedToken;
+import com.closedigit.bookstore.repository.ConsumedRefreshTokenRepository;
+import com.closedigit.bookstore.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for TokenRevocationService
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long HOUR = 3_600_000;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private ConsumedRefreshTokenRepository consumedRefreshTokenRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenRevocationService revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocationService(revokedTokenRepository, consumedRefreshTokenRepository, 24 * HOUR, 1, meterRegistry);
+    }
+
+    @Test
+    void revokeToken_ShouldRejectThatTokenOnly() {
+        Date issuedAt = new Date(System.currentTimeMillis() - HOUR);
+        revocations.revokeToken("jti-1", "reader", new Date(System.currentTimeMillis() + HOUR));
+
+        assertTrue(revocations.isRevoked("jti-1", "reader", issuedAt));
+        assertFalse(revocations.isRevoked("jti-2", "reader", issuedAt));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void claimToken_ShouldSucceedOnceWithoutTakingRevocationSlots() {
+        Date expiresAt = new Date(System.currentTimeMillis() + HOUR);
+        Date issuedAt = new Date(System.currentTimeMillis() - HOUR);
+        when(consumedRefreshTokenRepository.saveAndFlush(any(ConsumedRefreshToken.class)))
+                .thenReturn(null)
+                .thenReturn(null)
+                .thenThrow(new DataIntegrityViolationException("duplicate token_id"));
+
+        assertTrue(revocations.claimToken("jti-1", "reader", expiresAt));
+        assertTrue(revocations.claimToken("jti-2", "reader", expiresAt));
+        assertFalse(revocations.claimToken("jti-1", "reader", expiresAt));
+
+        // claims hold no in-memory slot: the list (capacity 1) still takes an explicit revocation
+        revocations.revokeToken("jti-3", "reader", expiresAt);
+        assertTrue(revocations.isRevoked("jti-3", "reader", issuedAt));
+        assertFalse(revocations.isRevoked("jti-4", "reader", issuedAt));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, never()).saveAndFlush(any(RevokedToken.class));
+    }
+
+    @Test
+    void revokeAllTokens_ShouldRejectTokensIssuedBeforeTheCutoff() {
+        revocations.revokeAllTokens("reader");
+
+        assertTrue(revocations.isRevoked("jti-1", "reader", new Date(System.currentTimeMillis() - HOUR)));
+        assertFalse(revocations.isRevoked("jti-2", "reader", new Date(System.currentTimeMillis() + 1000)));
+        assertFalse(revocations.isRevoked("jti-1", "writer", new Date(System.currentTimeMillis() - HOUR)));
+    }
+
+    @Test
+    void revokeToken_WhenListIsFull_ShouldRevokeAllTokensOfTheUser() {
+        Date expiresAt = new Date(System.currentTimeMillis() + HOUR);
+        Date issuedAt = new Date(System.currentTimeMillis() - HOUR);
+        revocations.revokeToken("jti-1", "reader", expiresAt);
+        revocations.revokeToken("jti-2", "writer", expiresAt);
+
+        assertTrue(revocations.isRevoked("jti-3", "writer", issuedAt));
+        assertFalse(revocations.isRevoked("jti-3", "reader", issuedAt));
+        verify(revokedTokenRepository, times(2)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revokeAllTokens_ShouldCoverTokensIssuedEarlierInTheSameSecond() {
+        // iat is truncated to whole seconds, so a token issued just before the cutoff reads as this
+        Date sameSecond = new Date(System.currentTimeMillis() / 1000 * 1000);
+        revocations.revokeAllTokens("reader");
+
+        assertTrue(revocations.isRevoked("jti-1", "reader", sameSecond));
+
+        Date issuedAt = revocations.issueTimeFor("reader");
+        assertEquals(0, issuedAt.getTime() % 1000);
+        assertFalse(revocations.isRevoked("jti-2", "reader", issuedAt));
+        assertTrue(issuedAt.getTime() <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void pollRevocations_ShouldApplyCutoffsWrittenByAnotherNode() {
+        Instant revokedAt = Instant.now();
+        when(revokedTokenRepository.findByCreatedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                RevokedToken.allTokensOf("reader", revokedAt, revokedAt.plusMillis(HOUR))));
+
+        revocations.pollRevocations();
+
+        assertTrue(revocations.isRevoked("jti-1", "reader", Date.from(revokedAt)));
+        assertFalse(revocations.isRevoked("jti-1", "writer", Date.from(revokedAt)));
+    }
+
+    @Test
+    void pollRevocations_BeyondTheCap_ShouldFallBackToUserCutoffs() {
+        Instant expiresAt = Instant.now().plusMillis(HOUR);
+        Date issuedAt = new Date(System.currentTimeMillis() - HOUR);
+        when(revokedTokenRepository.findByCreatedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                RevokedToken.token("jti-1", "reader", expiresAt),
+                RevokedToken.token("jti-2", "writer", expiresAt),
+                RevokedToken.token("jti-3", "editor", expiresAt)));
+
+        revocations.pollRevocations();
+
+        assertEquals(1.0, meterRegistry.get("auth.revocations").tag("scope", "token").gauge().value());
+        assertTrue(revocations.isRevoked("jti-1", "reader", issuedAt));
+        assertTrue(revocations.isRevoked("jti-2", "writer", issuedAt));
+        assertTrue(revocations.isRevoked("jti-3", "editor", issuedAt));
+        assertFalse(revocations.isRevoked("jti-4", "reader", issuedAt));
+    }
+}